@@ -0,0 +1,67 @@
+#!/bin/bash
+
+# Food Tracker load test: compares throughput and p99 latency of the default
+# platform-thread pool against the opt-in virtual-thread profile.
+#
+# Usage: ./loadtest.sh [default|virtual|both] [endpoint]
+# Set METHOD=POST to hammer a write endpoint, e.g. the contention test on one hot item:
+#   METHOD=POST CLIENTS="50 200 1000" ./loadtest.sh both "/api/foods/4/consume?amount=1"
+# Requires hey (https://github.com/rakyll/hey) and a built jar (mvn clean install -DskipTests).
+
+MODE=${1:-both}
+ENDPOINT=${2:-/api/foods/statistics}
+METHOD=${METHOD:-GET}
+PORT=${PORT:-8080}
+CLIENTS=${CLIENTS:-"1000 2500 5000 10000"}
+REQUESTS_PER_CLIENT=${REQUESTS_PER_CLIENT:-20}
+JAR=$(ls target/food-tracker-web-*.jar 2>/dev/null | head -1)
+
+if ! command -v hey &> /dev/null; then
+    echo "❌ hey is not installed. Install it with: go install github.com/rakyll/hey@latest"
+    exit 1
+fi
+
+if [ -z "$JAR" ]; then
+    echo "❌ No jar found in target/. Run: mvn clean install -DskipTests"
+    exit 1
+fi
+
+# Raise the open file limit so 10k sockets fit on both sides
+ulimit -n 65536 2>/dev/null
+
+run_mode() {
+    local profile=$1
+    echo ""
+    echo "🚀 Starting Food Tracker ($profile)"
+    java -jar "$JAR" --server.port=$PORT --spring.profiles.active=$profile \
+        --spring.datasource.url=jdbc:h2:mem:loadtest > "loadtest-$profile.log" 2>&1 &
+    local pid=$!
+
+    for i in $(seq 1 60); do
+        curl -s "http://localhost:$PORT/api/foods" > /dev/null && break
+        sleep 1
+    done
+    curl -s -X POST "http://localhost:$PORT/api/foods/sample-data" > /dev/null
+
+    for clients in $CLIENTS; do
+        echo "== $profile, $clients concurrent clients, $METHOD $ENDPOINT"
+        hey -n $((clients * REQUESTS_PER_CLIENT)) -c "$clients" -m "$METHOD" "http://localhost:$PORT$ENDPOINT" \
+            | grep -E "Requests/sec|99% in|Error distribution|\[[0-9]+\]"
+    done
+
+    kill $pid
+    wait $pid 2>/dev/null
+}
+
+case $MODE in
+    default) run_mode default ;;
+    virtual) run_mode virtual ;;
+    both)
+        run_mode default
+        run_mode virtual
+        ;;
+    *)
+        echo "Usage: ./loadtest.sh [default|virtual|both] [endpoint]"
+        exit 1
+        ;;
+esac
@@ -0,0 +1,72 @@
+package com.foodtracker.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.foodtracker.dto.FoodDTO;
+import com.foodtracker.model.Food;
+import com.foodtracker.service.FoodService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Entity to DTO conversion and JSON serialization of DTO lists, without a database
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class ConversionBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    private final FoodService foodService = new FoodService();
+    // Configured like Spring Boot's mapper: java.time support, ISO dates
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private List<Food> foods;
+    private List<FoodDTO> dtos;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        foods = SyntheticFoods.generate(rows);
+        dtos = convert();
+    }
+
+    @Benchmark
+    public List<FoodDTO> convertToDTO() {
+        return convert();
+    }
+
+    @Benchmark
+    public void serializeJson() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), dtos);
+    }
+
+    private List<FoodDTO> convert() {
+        List<FoodDTO> converted = new ArrayList<>(foods.size());
+        for (Food food : foods) {
+            converted.add(foodService.convertToDTO(food));
+        }
+        return converted;
+    }
+}
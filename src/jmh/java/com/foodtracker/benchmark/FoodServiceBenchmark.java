@@ -0,0 +1,126 @@
+package com.foodtracker.benchmark;
+
+import com.foodtracker.dto.FoodDTO;
+import com.foodtracker.dto.FoodPageDTO;
+import com.foodtracker.model.Food;
+import com.foodtracker.repository.FoodRepository;
+import com.foodtracker.repository.FoodStatusCounts;
+import com.foodtracker.service.FoodService;
+import com.foodtracker.service.StatisticsDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// List, status and statistics calls through the FoodService bean, with status lists and statistics
+// served by the inventory snapshot or, with it disabled, by indexed range and aggregate queries
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class FoodServiceBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Inventory extends SeededInventory {
+
+        @Param({"true", "false"})
+        public boolean snapshot;
+
+        @Override
+        protected List<String> arguments() {
+            List<String> arguments = super.arguments();
+            arguments.add("--foodtracker.snapshot.enabled=" + snapshot);
+            return arguments;
+        }
+    }
+
+    private FoodService foodService;
+    private FoodRepository foodRepository;
+
+    @Setup
+    public void setUp(Inventory inventory) {
+        foodService = inventory.bean(FoodService.class);
+        foodRepository = inventory.bean(FoodRepository.class);
+    }
+
+    @Benchmark
+    public List<FoodDTO> activeFoods() {
+        return foodService.getActiveFoods();
+    }
+
+    // The pre-projection path kept for comparison: hydrate every entity, drop donated ones in
+    // Java and convert each
+    @Benchmark
+    public List<FoodDTO> activeFoodsFromEntities() {
+        return foodRepository.findAll().stream()
+                .filter(food -> !Boolean.TRUE.equals(food.getDonated()))
+                .map(foodService::convertToDTO)
+                .toList();
+    }
+
+    @Benchmark
+    public List<FoodDTO> expiredFoods() {
+        return foodService.getExpiredFoods();
+    }
+
+    // The pre-range-query path kept for comparison: hydrate every entity, filter and sort in Java
+    @Benchmark
+    public List<FoodDTO> expiredFoodsFromEntities() {
+        return foodRepository.findAll().stream()
+                .filter(food -> !Boolean.TRUE.equals(food.getDonated()) && food.isExpired())
+                .sorted(Comparator.comparingLong(Food::getDaysUntilExpiry).reversed())
+                .map(foodService::convertToDTO)
+                .toList();
+    }
+
+    @Benchmark
+    public List<FoodDTO> expiringSoon() {
+        return foodService.getExpiringSoon();
+    }
+
+    @Benchmark
+    public List<FoodDTO> goodFoods() {
+        return foodService.getGoodFoods();
+    }
+
+    @Benchmark
+    public List<FoodDTO> foodsByCategory() {
+        return foodService.getFoodsByCategory("dairy");
+    }
+
+    @Benchmark
+    public FoodPageDTO firstPage() {
+        return foodService.getActiveFoodsPage(null, FoodService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<FoodDTO> search() {
+        return foodService.searchFoods("chiken brest", FoodService.DEFAULT_SEARCH_LIMIT);
+    }
+
+    // Served by the inventory snapshot
+    @Benchmark
+    public StatisticsDTO statistics() {
+        return foodService.getStatistics();
+    }
+
+    // The aggregate query used when the snapshot and expiry index are disabled
+    @Benchmark
+    public FoodStatusCounts statisticsFromDatabase() {
+        int today = (int) LocalDate.now().toEpochDay();
+        return foodRepository.countActiveByStatus(today, today + Food.EXPIRING_SOON_DAYS, today + 7);
+    }
+}
@@ -0,0 +1,76 @@
+package com.foodtracker.benchmark;
+
+import com.foodtracker.service.FoodService;
+import com.foodtracker.service.InsufficientQuantityException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Concurrent 95/5 read/write mix: each operation is a status list, statistics, category or page
+// read, or one time in twenty a consume on a random food, with reads served from the inventory
+// snapshot or from the database
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+@Threads(8)
+public class MixedLoadBenchmark {
+
+    private static final int WRITE_PERCENT = 5;
+
+    @State(Scope.Benchmark)
+    public static class Inventory extends SeededInventory {
+
+        @Param({"true", "false"})
+        public boolean snapshot;
+
+        @Override
+        protected List<String> arguments() {
+            List<String> arguments = super.arguments();
+            arguments.add("--foodtracker.snapshot.enabled=" + snapshot);
+            return arguments;
+        }
+    }
+
+    private FoodService foodService;
+    private int rows;
+
+    @Setup
+    public void setUp(Inventory inventory) {
+        foodService = inventory.bean(FoodService.class);
+        rows = inventory.rows;
+    }
+
+    @Benchmark
+    public Object mixed() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int roll = random.nextInt(100);
+        if (roll < WRITE_PERCENT) {
+            try {
+                return foodService.consumeFood(1L + random.nextInt(rows), 1);
+            } catch (InsufficientQuantityException e) {
+                return e;
+            }
+        }
+        return switch (roll % 4) {
+            case 0 -> foodService.getExpiringSoon();
+            case 1 -> foodService.getStatistics();
+            case 2 -> foodService.getFoodsByCategory("dairy");
+            default -> foodService.getActiveFoodsPage(null, FoodService.DEFAULT_PAGE_SIZE);
+        };
+    }
+}
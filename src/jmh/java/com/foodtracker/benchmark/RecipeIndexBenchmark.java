@@ -0,0 +1,86 @@
+package com.foodtracker.benchmark;
+
+import com.foodtracker.dto.RecipeDTO;
+import com.foodtracker.index.RecipeIngredientIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Recipe matching over a synthetic catalog, through the ingredient token index and through the
+// nested-loop substring matcher it replaced
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class RecipeIndexBenchmark {
+
+    private static final List<String> PANTRY = List.of("Milk", "Eggs", "Cheddar Cheese", "Tomato", "Pasta",
+            "Greek Yogurt", "Ground Beef", "Spinach", "Frozen Peas", "Salmon");
+
+    @Param({"10000", "100000"})
+    public int recipes;
+
+    private List<RecipeDTO> catalog;
+    private RecipeIngredientIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        catalog = SyntheticRecipes.generate(recipes);
+        index = new RecipeIngredientIndex(catalog);
+    }
+
+    @Benchmark
+    public List<RecipeDTO> matchOne() {
+        return index.match(List.of("Greek Yogurt"));
+    }
+
+    @Benchmark
+    public List<RecipeDTO> matchOneLegacy() {
+        return legacyMatch(List.of("Greek Yogurt"));
+    }
+
+    @Benchmark
+    public List<RecipeDTO> matchPantry() {
+        return index.match(PANTRY);
+    }
+
+    @Benchmark
+    public List<RecipeDTO> matchPantryLegacy() {
+        return legacyMatch(PANTRY);
+    }
+
+    // The pre-index matcher: every ingredient of every recipe against every food, either name
+    // containing the other
+    private List<RecipeDTO> legacyMatch(List<String> foodNames) {
+        List<RecipeDTO> matches = new ArrayList<>();
+        for (RecipeDTO recipe : catalog) {
+            int matchCount = 0;
+            for (String ingredient : recipe.getIngredients()) {
+                for (String food : foodNames) {
+                    if (ingredient.toLowerCase().contains(food.toLowerCase()) ||
+                            food.toLowerCase().contains(ingredient.toLowerCase())) {
+                        matchCount++;
+                    }
+                }
+            }
+            if (matchCount > 0) {
+                matches.add(recipe);
+            }
+        }
+        return matches;
+    }
+}
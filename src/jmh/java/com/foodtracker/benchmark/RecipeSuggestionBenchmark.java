@@ -0,0 +1,51 @@
+package com.foodtracker.benchmark;
+
+import com.foodtracker.dto.RankedRecipeDTO;
+import com.foodtracker.dto.RecipeDTO;
+import com.foodtracker.service.RecipeSuggestionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Recipe matching by name and use-it-up ranking over the seeded inventory
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class RecipeSuggestionBenchmark {
+
+    private static final List<String> PANTRY = List.of("Milk", "Eggs", "Cheddar Cheese", "Tomato", "Pasta");
+
+    private RecipeSuggestionService recipeSuggestionService;
+
+    @Setup
+    public void setUp(SeededInventory inventory) {
+        recipeSuggestionService = inventory.bean(RecipeSuggestionService.class);
+    }
+
+    @Benchmark
+    public List<RecipeDTO> matchOne() {
+        return recipeSuggestionService.getRecipeSuggestions("Greek Yogurt");
+    }
+
+    @Benchmark
+    public List<RecipeDTO> matchMultiple() {
+        return recipeSuggestionService.getRecipeSuggestionsForMultiple(PANTRY);
+    }
+
+    @Benchmark
+    public List<RankedRecipeDTO> useItUp() {
+        return recipeSuggestionService.getUseItUpSuggestions(RecipeSuggestionService.DEFAULT_USE_IT_UP_LIMIT);
+    }
+}
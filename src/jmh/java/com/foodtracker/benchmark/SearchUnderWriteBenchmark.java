@@ -0,0 +1,72 @@
+package com.foodtracker.benchmark;
+
+import com.foodtracker.dto.FoodDTO;
+import com.foodtracker.service.FoodService;
+import com.foodtracker.service.InsufficientQuantityException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Search latency percentiles while other threads keep writing: every write is a consume, which
+// leaves the indexed text alone, or a rename, which moves the food to other posting lists
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class SearchUnderWriteBenchmark {
+
+    private static final String[] RENAMES = {"Chicken Breast", "Cheddar Cheese", "Greek Yogurt", "Frozen Peas"};
+
+    private FoodService foodService;
+    private int rows;
+
+    @Setup
+    public void setUp(SeededInventory inventory) {
+        foodService = inventory.bean(FoodService.class);
+        rows = inventory.rows;
+    }
+
+    @Benchmark
+    @Group("searchWhileWriting")
+    @GroupThreads(3)
+    public List<FoodDTO> search() {
+        return foodService.searchFoods("chiken brest", FoodService.DEFAULT_SEARCH_LIMIT);
+    }
+
+    @Benchmark
+    @Group("searchWhileWriting")
+    @GroupThreads(1)
+    public Object write() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long id = 1L + random.nextInt(rows);
+        if (random.nextBoolean()) {
+            try {
+                return foodService.consumeFood(id, 1);
+            } catch (InsufficientQuantityException e) {
+                return e;
+            }
+        }
+        return foodService.updateFood(id, FoodDTO.builder()
+                .name(RENAMES[random.nextInt(RENAMES.length)] + " " + random.nextInt(997))
+                .quantity(1 + random.nextInt(500))
+                .unit("pcs")
+                .expiryDate(LocalDate.now().plusDays(random.nextInt(45)))
+                .category("meat")
+                .build());
+    }
+}
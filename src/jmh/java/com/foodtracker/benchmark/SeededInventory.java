@@ -0,0 +1,66 @@
+package com.foodtracker.benchmark;
+
+import com.foodtracker.FoodTrackerApplication;
+import com.foodtracker.index.ExpiryIndex;
+import com.foodtracker.index.FoodFacetIndex;
+import com.foodtracker.index.FoodSearchIndex;
+import com.foodtracker.index.InventorySnapshotIndex;
+import com.foodtracker.service.ExpiryAlertScheduler;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.util.ArrayList;
+import java.util.List;
+
+// The full application context (minus the web server) over an in-memory H2 holding the synthetic
+// inventory. Caching is off so benchmarks measure the work behind each call, not cache hits.
+@State(Scope.Benchmark)
+public class SeededInventory {
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    public ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void start() {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        context = new SpringApplicationBuilder(FoodTrackerApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(arguments().toArray(new String[0]));
+        SyntheticFoods.seed(context.getBean(JdbcTemplate.class), rows);
+        // The in-memory indexes loaded an empty table at startup
+        context.getBeanProvider(ExpiryIndex.class).ifAvailable(ExpiryIndex::load);
+        context.getBeanProvider(InventorySnapshotIndex.class).ifAvailable(InventorySnapshotIndex::load);
+        context.getBean(FoodSearchIndex.class).load();
+        context.getBean(FoodFacetIndex.class).load();
+        context.getBeanProvider(ExpiryAlertScheduler.class).ifAvailable(ExpiryAlertScheduler::load);
+    }
+
+    // As command-line arguments so they override application.properties
+    protected List<String> arguments() {
+        return new ArrayList<>(List.of("--spring.datasource.url=jdbc:h2:mem:bench-" + rows,
+                "--spring.cache.type=none",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--logging.level.com.foodtracker=WARN",
+                "--foodtracker.archive.cron=-",
+                "--foodtracker.changes.compaction-cron=-"));
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+}
@@ -0,0 +1,74 @@
+package com.foodtracker.benchmark;
+
+import com.foodtracker.model.Food;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Deterministic inventory generator: the same row count always yields the same rows, with expiry
+// dates relative to today so the status mix stays the same whichever day the benchmarks run
+public final class SyntheticFoods {
+
+    private static final long SEED = 20250101L;
+    private static final int INSERT_BATCH = 10_000;
+
+    private static final String[] NAMES = {
+            "Milk", "Bread", "Tomato", "Chicken", "Yogurt", "Lettuce", "Ice Cream", "Cheese", "Eggs",
+            "Butter", "Rice", "Pasta", "Beef", "Fish", "Cucumber", "Apple", "Banana", "Carrot", "Onion",
+            "Potato", "Spinach", "Broccoli", "Garlic", "Cream", "Flour", "Sugar", "Oats", "Beans",
+            "Pepper", "Mushroom", "Orange Juice", "Greek Yogurt", "Cheddar Cheese", "Chicken Breast",
+            "Ground Beef", "Salmon", "Strawberries", "Blueberries", "Frozen Peas", "Tortillas"
+    };
+    private static final String[] CATEGORIES = {"dairy", "pantry", "produce", "meat", "frozen"};
+    private static final String[] UNITS = {"pcs", "g", "kg", "L", "ml"};
+
+    private SyntheticFoods() {
+    }
+
+    // Row i of the synthetic inventory; ids run from 1 to rows
+    public static List<Food> generate(int rows) {
+        LocalDate today = LocalDate.now();
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<Food> foods = new ArrayList<>(rows);
+        for (int i = 1; i <= rows; i++) {
+            String name = NAMES[random.nextInt(NAMES.length)];
+            LocalDate expiry = today.plusDays(random.nextInt(-14, 45));
+            LocalDate added = expiry.minusDays(random.nextInt(1, 60));
+            boolean donated = random.nextInt(20) == 0;
+            Food food = new Food((long) i, name + " " + (i % 997), 1 + random.nextInt(500),
+                    UNITS[random.nextInt(UNITS.length)], expiry, added,
+                    CATEGORIES[random.nextInt(CATEGORIES.length)], donated, donated ? added.plusDays(1) : null);
+            food.setVersion(0L);
+            foods.add(food);
+        }
+        return foods;
+    }
+
+    // Bulk-load the synthetic inventory straight into the foods table
+    public static void seed(JdbcTemplate jdbcTemplate, int rows) {
+        List<Food> foods = generate(rows);
+        String sql = "INSERT INTO foods (id, name, name_key, quantity, unit, expiry_date, expiry_epoch_day, added_date, " +
+                "category, category_key, donated, donated_date, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        for (int from = 0; from < foods.size(); from += INSERT_BATCH) {
+            List<Food> batch = foods.subList(from, Math.min(from + INSERT_BATCH, foods.size()));
+            jdbcTemplate.batchUpdate(sql, batch, batch.size(), (statement, food) -> {
+                statement.setLong(1, food.getId());
+                statement.setString(2, food.getName());
+                statement.setString(3, food.getNameKey());
+                statement.setInt(4, food.getQuantity());
+                statement.setString(5, food.getUnit());
+                statement.setDate(6, Date.valueOf(food.getExpiryDate()));
+                statement.setInt(7, food.getExpiryEpochDay());
+                statement.setDate(8, Date.valueOf(food.getAddedDate()));
+                statement.setString(9, food.getCategory());
+                statement.setString(10, food.getCategoryKey());
+                statement.setBoolean(11, food.getDonated());
+                statement.setDate(12, food.getDonatedDate() != null ? Date.valueOf(food.getDonatedDate()) : null);
+                statement.setLong(13, food.getVersion());
+            });
+        }
+    }
+}
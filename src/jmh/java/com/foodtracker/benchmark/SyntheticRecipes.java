@@ -0,0 +1,45 @@
+package com.foodtracker.benchmark;
+
+import com.foodtracker.dto.RecipeDTO;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+// Deterministic recipe catalog generator: ingredients are a base food, sometimes with a modifier,
+// so token containment has both exact and partial matches to find, as in a real catalog
+public final class SyntheticRecipes {
+
+    private static final long SEED = 20250102L;
+
+    private static final String[] BASES = {
+            "Milk", "Bread", "Tomato", "Chicken", "Yogurt", "Lettuce", "Cheese", "Eggs", "Butter", "Rice",
+            "Pasta", "Beef", "Fish", "Cucumber", "Apple", "Banana", "Carrot", "Onion", "Potato", "Spinach",
+            "Broccoli", "Garlic", "Cream", "Flour", "Sugar", "Oats", "Beans", "Pepper", "Mushroom", "Salmon",
+            "Lemon", "Basil", "Ginger", "Tofu", "Lentils", "Honey", "Almonds", "Cabbage", "Zucchini", "Pork"
+    };
+    private static final String[] MODIFIERS = {
+            "Greek", "Cheddar", "Ground", "Frozen", "Smoked", "Fresh", "Dried", "Red", "Green", "Sweet",
+            "Whole", "Sour", "Wild", "Baby", "Brown", "Roasted"
+    };
+
+    private SyntheticRecipes() {
+    }
+
+    public static List<RecipeDTO> generate(int count) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<RecipeDTO> recipes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int size = random.nextInt(3, 9);
+            Set<String> ingredients = new LinkedHashSet<>();
+            while (ingredients.size() < size) {
+                String base = BASES[random.nextInt(BASES.length)];
+                ingredients.add(random.nextInt(3) == 0 ? MODIFIERS[random.nextInt(MODIFIERS.length)] + " " + base : base);
+            }
+            recipes.add(new RecipeDTO("Recipe " + i, "Synthetic recipe " + i, List.copyOf(ingredients),
+                    (10 + random.nextInt(50)) + " mins", "Easy", "Combine and cook."));
+        }
+        return recipes;
+    }
+}
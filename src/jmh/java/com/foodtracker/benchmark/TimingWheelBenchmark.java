@@ -0,0 +1,61 @@
+package com.foodtracker.benchmark;
+
+import com.foodtracker.index.TimingWheel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// The expiry alert wheel on its own: rescheduling one of millions of timers, and advancing through
+// a minute of one-second ticks while every expired timer is rescheduled, so the wheel stays full
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class TimingWheelBenchmark {
+
+    // Deadlines spread over 30 days of one-second ticks
+    private static final long SPAN = 30L * 24 * 60 * 60;
+
+    @Param({"1000000", "10000000"})
+    public int timers;
+
+    private TimingWheel wheel;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        random = new SplittableRandom(42);
+        wheel = new TimingWheel(0);
+        for (long key = 0; key < timers; key++) {
+            wheel.schedule(key, 1 + random.nextLong(SPAN), 0);
+        }
+    }
+
+    @Benchmark
+    public boolean reschedule() {
+        return wheel.schedule(random.nextLong(timers), wheel.currentTick() + 1 + random.nextLong(SPAN), 0);
+    }
+
+    @Benchmark
+    public int advanceOneMinute() {
+        int[] expired = new int[1];
+        wheel.advanceTo(wheel.currentTick() + 60, (key, deadline, payload) -> {
+            expired[0]++;
+            wheel.schedule(key, deadline + 1 + random.nextLong(SPAN), payload);
+        });
+        return expired[0];
+    }
+}
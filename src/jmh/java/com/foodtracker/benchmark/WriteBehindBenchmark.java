@@ -0,0 +1,98 @@
+package com.foodtracker.benchmark;
+
+import com.foodtracker.dto.FoodDTO;
+import com.foodtracker.model.Food;
+import com.foodtracker.service.FoodService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Concurrent adds and updates against an H2 file database, committed one transaction per write
+// or acknowledged from the write-behind journal and flushed in batches
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+@Threads(16)
+public class WriteBehindBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Inventory extends SeededInventory {
+
+        @Param({"true", "false"})
+        public boolean writeBehind;
+
+        @Override
+        protected List<String> arguments() {
+            Path directory;
+            try {
+                directory = Files.createTempDirectory("foodtracker-bench");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            List<String> arguments = super.arguments();
+            // Durability is the point here, so the database is on disk rather than in memory
+            arguments.removeIf(argument -> argument.startsWith("--spring.datasource.url="));
+            arguments.add("--spring.datasource.url=jdbc:h2:file:" + directory.resolve("foodtracker") +
+                    ";DB_CLOSE_ON_EXIT=FALSE");
+            arguments.add("--foodtracker.write-behind.enabled=" + writeBehind);
+            arguments.add("--foodtracker.write-behind.directory=" + directory.resolve("journal"));
+            return arguments;
+        }
+    }
+
+    private FoodService foodService;
+    private int rows;
+
+    @Setup
+    public void setUp(Inventory inventory) {
+        foodService = inventory.bean(FoodService.class);
+        rows = inventory.rows;
+        // The seeded rows were inserted without the id sequence
+        inventory.bean(JdbcTemplate.class).execute("ALTER SEQUENCE foods_seq RESTART WITH " +
+                (rows + Food.ID_ALLOCATION_SIZE));
+    }
+
+    @Benchmark
+    public FoodDTO addFood() {
+        return foodService.addFood(FoodDTO.builder()
+                .name("Bench item")
+                .quantity(1)
+                .unit("pcs")
+                .expiryDate(LocalDate.now().plusDays(7))
+                .category("pantry")
+                .build());
+    }
+
+    @Benchmark
+    public FoodDTO updateFood() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return foodService.updateFood(1L + random.nextInt(rows), FoodDTO.builder()
+                .name("Bench item")
+                .quantity(1 + random.nextInt(10))
+                .unit("pcs")
+                .expiryDate(LocalDate.now().plusDays(random.nextInt(30)))
+                .category("pantry")
+                .build());
+    }
+}
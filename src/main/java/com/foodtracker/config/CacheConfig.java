@@ -0,0 +1,15 @@
+package com.foodtracker.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+// Cache names used by FoodService; sizes and TTL come from spring.cache.caffeine.spec
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String STATISTICS = "statistics";
+    public static final String FOODS_BY_STATUS = "foodsByStatus";
+    public static final String FOODS_BY_CATEGORY = "foodsByCategory";
+    public static final String DONATED_FOODS = "donatedFoods";
+}
@@ -0,0 +1,118 @@
+package com.foodtracker.config;
+
+import com.foodtracker.model.Food;
+import com.foodtracker.service.WriteBehindQueue;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+// Schema fix-ups that ddl-auto=update cannot express, run once Hibernate has updated the schema
+@Component
+@DependsOn("entityManagerFactory")
+public class DatabaseInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(DatabaseInitializer.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired(required = false)
+    private WriteBehindQueue writeBehind;
+
+    @PostConstruct
+    public void initialize() {
+        alignFoodIdSequence();
+        backfillExpiryEpochDay();
+        backfillFoodVersion();
+        backfillNameKey();
+        backfillCategoryKey();
+        backfillArchiveKeys();
+        if (writeBehind != null) {
+            replayJournal();
+        }
+    }
+
+    // Databases created before ids came from foods_seq have identity-generated rows; move the
+    // sequence past them. The pooled optimizer hands out (value - allocationSize, value], so the
+    // next value must exceed the highest id by a full allocation block.
+    private void alignFoodIdSequence() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM foods", Long.class);
+        Long nextValue = jdbcTemplate.queryForObject(
+                "SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = 'FOODS_SEQ'", Long.class);
+        long required = maxId + Food.ID_ALLOCATION_SIZE;
+        if (nextValue == null || nextValue < required) {
+            jdbcTemplate.execute("ALTER SEQUENCE foods_seq RESTART WITH " + required);
+            log.info("Moved foods_seq to {} past existing id {}", required, maxId);
+        }
+    }
+
+    // Rows written before expiry_epoch_day existed get it derived from expiry_date; the column is
+    // then locked down to NOT NULL, and the date index it replaces is dropped
+    private void backfillExpiryEpochDay() {
+        int updated = jdbcTemplate.update(
+                "UPDATE foods SET expiry_epoch_day = DATEDIFF('DAY', DATE '1970-01-01', expiry_date) " +
+                "WHERE expiry_epoch_day IS NULL");
+        if (updated > 0) {
+            log.info("Backfilled expiry_epoch_day for {} foods", updated);
+        }
+        jdbcTemplate.execute("ALTER TABLE foods ALTER COLUMN expiry_epoch_day SET NOT NULL");
+        jdbcTemplate.execute("DROP INDEX IF EXISTS idx_foods_donated_expiry");
+    }
+
+    // Rows that predate optimistic locking start at version 0
+    private void backfillFoodVersion() {
+        int updated = jdbcTemplate.update("UPDATE foods SET version = 0 WHERE version IS NULL");
+        if (updated > 0) {
+            log.info("Backfilled version for {} foods", updated);
+        }
+        jdbcTemplate.execute("ALTER TABLE foods ALTER COLUMN version SET NOT NULL");
+    }
+
+    // Mutations acknowledged from the write-behind journal but never flushed go in before the
+    // indexes load; their ids may lie past the sequence position, so it is aligned again
+    private void replayJournal() {
+        try {
+            writeBehind.recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot replay the write-behind journal", e);
+        }
+        alignFoodIdSequence();
+    }
+
+    // Rows written before name_key existed get it from name, then the column is locked down
+    private void backfillNameKey() {
+        int updated = jdbcTemplate.update("UPDATE foods SET name_key = LOWER(name) WHERE name_key IS NULL");
+        if (updated > 0) {
+            log.info("Backfilled name_key for {} foods", updated);
+        }
+        jdbcTemplate.execute("ALTER TABLE foods ALTER COLUMN name_key SET NOT NULL");
+    }
+
+    // Rows written before category_key existed get it from category, then the column is locked down
+    // and the case-sensitive category index it replaces is dropped
+    private void backfillCategoryKey() {
+        int updated = jdbcTemplate.update("UPDATE foods SET category_key = LOWER(category) WHERE category_key IS NULL");
+        if (updated > 0) {
+            log.info("Backfilled category_key for {} foods", updated);
+        }
+        jdbcTemplate.execute("ALTER TABLE foods ALTER COLUMN category_key SET NOT NULL");
+        jdbcTemplate.execute("DROP INDEX IF EXISTS idx_foods_donated_category");
+    }
+
+    // Donations archived before donated_foods had key columns
+    private void backfillArchiveKeys() {
+        int updated = jdbcTemplate.update("UPDATE donated_foods SET name_key = LOWER(name), category_key = LOWER(category) " +
+                "WHERE name_key IS NULL OR category_key IS NULL");
+        if (updated > 0) {
+            log.info("Backfilled name_key and category_key for {} archived donations", updated);
+        }
+        jdbcTemplate.execute("ALTER TABLE donated_foods ALTER COLUMN name_key SET NOT NULL");
+        jdbcTemplate.execute("ALTER TABLE donated_foods ALTER COLUMN category_key SET NOT NULL");
+    }
+}
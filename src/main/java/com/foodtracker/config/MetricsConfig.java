@@ -0,0 +1,71 @@
+package com.foodtracker.config;
+
+import com.foodtracker.index.ExpiryIndex;
+import com.foodtracker.index.InventorySnapshotIndex;
+import com.foodtracker.model.Food;
+import com.foodtracker.model.FoodStatus;
+import com.foodtracker.repository.FoodRepository;
+import com.foodtracker.repository.FoodStatusCounts;
+import com.foodtracker.service.StatisticsDTO;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import java.time.LocalDate;
+import java.util.function.Function;
+
+// Meters exposed at /actuator/prometheus. HTTP routes, Hikari, Hibernate and cache meters come
+// from Spring Boot; @Timed service methods and the inventory gauges are registered here.
+@Configuration
+public class MetricsConfig {
+
+    public static final String INVENTORY_SIZE = "foodtracker.inventory.size";
+
+    // Makes @Timed on service classes record a timer per public method
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    // Active foods per status when Prometheus scrapes, read straight from the inventory snapshot or
+    // the expiry index rather than through FoodService, so scrapes do not show up in the service
+    // timers or the statistics cache counts. With both disabled each scrape runs one count query.
+    @Bean
+    public MeterBinder inventoryMetrics(ObjectProvider<InventorySnapshotIndex> inventorySnapshot,
+                                        ObjectProvider<ExpiryIndex> expiryIndex, FoodRepository foodRepository) {
+        return registry -> {
+            for (FoodStatus status : FoodStatus.values()) {
+                Gauge.builder(INVENTORY_SIZE, () -> count(status, inventorySnapshot.getIfAvailable(),
+                                expiryIndex.getIfAvailable(), foodRepository))
+                        .tag("status", status.name())
+                        .description("Active foods by expiry status")
+                        .register(registry);
+            }
+        };
+    }
+
+    private static long count(FoodStatus status, InventorySnapshotIndex inventorySnapshot, ExpiryIndex expiryIndex,
+                              FoodRepository foodRepository) {
+        int today = (int) LocalDate.now().toEpochDay();
+        StatisticsDTO statistics = inventorySnapshot != null ? inventorySnapshot.current().statistics(today)
+                : expiryIndex != null ? expiryIndex.getStatistics() : null;
+        if (statistics != null) {
+            return switch (status) {
+                case EXPIRED -> statistics.getExpiredCount();
+                case EXPIRING_SOON -> statistics.getExpiringSoonCount();
+                case GOOD -> statistics.getGoodCount();
+            };
+        }
+        FoodStatusCounts counts = foodRepository.countActiveByStatus(today, today + Food.EXPIRING_SOON_DAYS, today + 7);
+        Function<FoodStatusCounts, Long> count = switch (status) {
+            case EXPIRED -> FoodStatusCounts::getExpired;
+            case EXPIRING_SOON -> FoodStatusCounts::getExpiringSoon;
+            case GOOD -> FoodStatusCounts::getGood;
+        };
+        Long value = count.apply(counts);
+        return value != null ? value : 0;
+    }
+}
@@ -1,15 +1,44 @@
 package com.foodtracker.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foodtracker.dto.BulkImportResultDTO;
+import com.foodtracker.dto.FacetCountsDTO;
+import com.foodtracker.dto.FoodChangesDTO;
 import com.foodtracker.dto.FoodDTO;
+import com.foodtracker.dto.FoodPageDTO;
+import com.foodtracker.dto.FoodQueryDTO;
+import com.foodtracker.dto.RankedRecipeDTO;
 import com.foodtracker.dto.RecipeDTO;
+import com.foodtracker.model.FoodStatus;
+import com.foodtracker.service.FoodEventBroadcaster;
+import com.foodtracker.service.FoodImportReaders;
 import com.foodtracker.service.FoodService;
+import com.foodtracker.service.InsufficientQuantityException;
+import com.foodtracker.service.InventoryVersion;
+import com.foodtracker.service.RecipeCatalog;
 import com.foodtracker.service.RecipeSuggestionService;
 import com.foodtracker.service.StatisticsDTO;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/foods")
@@ -22,10 +51,64 @@ public class FoodController {
     @Autowired
     private RecipeSuggestionService recipeSuggestionService;
     
-    // Get all foods
+    @Autowired
+    private RecipeCatalog recipeCatalog;
+    
+    @Autowired
+    private InventoryVersion inventoryVersion;
+    
+    @Autowired
+    private FoodEventBroadcaster eventBroadcaster;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    // Get all foods; If-None-Match with the current ETag is answered 304 without touching the database
     @GetMapping
-    public ResponseEntity<List<FoodDTO>> getAllFoods() {
-        return ResponseEntity.ok(foodService.getAllFoods());
+    public ResponseEntity<List<FoodDTO>> getAllFoods(WebRequest request) {
+        String etag = inventoryVersion.getETag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(foodService.getAllFoods());
+    }
+    
+    // Get active foods one keyset page at a time
+    @GetMapping({"/page", "/active/page"})
+    public ResponseEntity<FoodPageDTO> getActiveFoodsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + FoodService.DEFAULT_PAGE_SIZE) int size) {
+        try {
+            return ResponseEntity.ok(foodService.getActiveFoodsPage(cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    // Stream active foods as newline-delimited JSON
+    @GetMapping(value = {"/stream", "/active/stream"}, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamActiveFoods() {
+        StreamingResponseBody body = out -> foodService.streamActiveFoods(food -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(food));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+    
+    // Get changes to the active inventory since a previously returned version
+    @GetMapping("/changes")
+    public ResponseEntity<FoodChangesDTO> getChanges(@RequestParam(defaultValue = "0") long since) {
+        return ResponseEntity.ok(foodService.getChangesSince(since));
+    }
+    
+    // Subscribe to inventory changes and daily expiry transitions as Server-Sent Events
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToEvents() {
+        return eventBroadcaster.subscribe();
     }
     
     // Get food by ID
@@ -45,14 +128,55 @@ public class FoodController {
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
     
-    // Update food
+    // Add many foods in batched transactions
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkImportResultDTO> addFoods(@RequestBody List<FoodDTO> foods) {
+        return ResponseEntity.ok(foodService.importFoods(foods.iterator()));
+    }
+    
+    // Stream a CSV or NDJSON upload into batched inserts without buffering the whole body
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<BulkImportResultDTO> importFoods(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType, InputStream body) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            if (MediaType.APPLICATION_NDJSON.isCompatibleWith(contentType)) {
+                return ResponseEntity.ok(foodService.importFoods(FoodImportReaders.ndjson(reader, objectMapper)));
+            }
+            return ResponseEntity.ok(foodService.importFoods(FoodImportReaders.csv(reader)));
+        } catch (IllegalArgumentException e) {
+            // Only an unusable CSV header gets here; bad rows are reported in the result
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    // Update food; 409 if the supplied version is stale
     @PutMapping("/{id}")
     public ResponseEntity<FoodDTO> updateFood(@PathVariable Long id, @RequestBody FoodDTO foodDTO) {
-        FoodDTO updated = foodService.updateFood(id, foodDTO);
-        if (updated != null) {
-            return ResponseEntity.ok(updated);
+        try {
+            FoodDTO updated = foodService.updateFood(id, foodDTO);
+            if (updated != null) {
+                return ResponseEntity.ok(updated);
+            }
+            return ResponseEntity.notFound().build();
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+    
+    // Consume part of a food's quantity; 409 if less than the amount is left
+    @PostMapping("/{id}/consume")
+    public ResponseEntity<FoodDTO> consumeFood(@PathVariable Long id, @RequestParam int amount) {
+        try {
+            FoodDTO consumed = foodService.consumeFood(id, amount);
+            if (consumed != null) {
+                return ResponseEntity.ok(consumed);
+            }
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (InsufficientQuantityException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         }
-        return ResponseEntity.notFound().build();
     }
     
     // Delete food
@@ -84,8 +208,10 @@ public class FoodController {
     
     // Search foods
     @GetMapping("/search")
-    public ResponseEntity<List<FoodDTO>> searchFoods(@RequestParam String query) {
-        return ResponseEntity.ok(foodService.searchFoods(query));
+    public ResponseEntity<List<FoodDTO>> searchFoods(
+            @RequestParam String query,
+            @RequestParam(defaultValue = "" + FoodService.DEFAULT_SEARCH_LIMIT) int limit) {
+        return ResponseEntity.ok(foodService.searchFoods(query, limit));
     }
     
     // Get foods by category
@@ -94,10 +220,56 @@ public class FoodController {
         return ResponseEntity.ok(foodService.getFoodsByCategory(category));
     }
     
+    // Filter, sort and project foods in one call, e.g.
+    // ?namePrefix=ch&category=dairy,meat&status=EXPIRING_SOON&sort=-quantity&fields=id,name,quantity&limit=20
+    @GetMapping("/query")
+    public ResponseEntity<List<Map<String, Object>>> queryFoods(
+            @RequestParam(required = false) String namePrefix,
+            @RequestParam(required = false) List<String> category,
+            @RequestParam(required = false) List<FoodStatus> status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate expiryFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate expiryTo,
+            @RequestParam(required = false) Boolean donated,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) List<String> fields,
+            @RequestParam(required = false) Integer limit) {
+        FoodQueryDTO query = FoodQueryDTO.builder()
+                .namePrefix(namePrefix)
+                .categories(category)
+                .statuses(status)
+                .expiryFrom(expiryFrom)
+                .expiryTo(expiryTo)
+                .donated(donated)
+                .sort(sort)
+                .fields(fields)
+                .limit(limit)
+                .build();
+        try {
+            return ResponseEntity.ok(foodService.queryFoods(query));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    // Count foods matching every given facet, e.g. ?category=dairy&status=EXPIRING_SOON&donated=false;
+    // repeat a parameter (or comma-separate values) to match any of them
+    @GetMapping("/facets")
+    public ResponseEntity<FacetCountsDTO> countFacets(
+            @RequestParam(required = false) List<String> category,
+            @RequestParam(required = false) List<FoodStatus> status,
+            @RequestParam(required = false) List<String> unit,
+            @RequestParam(required = false) Boolean donated) {
+        return ResponseEntity.ok(foodService.countFacets(category, status, unit, donated));
+    }
+    
     // Get statistics
     @GetMapping("/statistics")
-    public ResponseEntity<StatisticsDTO> getStatistics() {
-        return ResponseEntity.ok(foodService.getStatistics());
+    public ResponseEntity<StatisticsDTO> getStatistics(WebRequest request) {
+        String etag = inventoryVersion.getETag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(foodService.getStatistics());
     }
     
     // Add sample data
@@ -125,8 +297,19 @@ public class FoodController {
     
     // Get active foods (not donated)
     @GetMapping("/active")
-    public ResponseEntity<List<FoodDTO>> getActiveFoods() {
-        return ResponseEntity.ok(foodService.getActiveFoods());
+    public ResponseEntity<List<FoodDTO>> getActiveFoods(WebRequest request) {
+        String etag = inventoryVersion.getETag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(foodService.getActiveFoods());
+    }
+    
+    // Get the top recipes for using up what is about to expire
+    @GetMapping("/recipes/use-it-up")
+    public ResponseEntity<List<RankedRecipeDTO>> getUseItUpSuggestions(
+            @RequestParam(defaultValue = "" + RecipeSuggestionService.DEFAULT_USE_IT_UP_LIMIT) int limit) {
+        return ResponseEntity.ok(recipeSuggestionService.getUseItUpSuggestions(limit));
     }
     
     // Get recipe suggestions for a specific food
@@ -140,4 +323,16 @@ public class FoodController {
     public ResponseEntity<List<RecipeDTO>> getRecipeSuggestionsForCategory(@PathVariable String category) {
         return ResponseEntity.ok(recipeSuggestionService.getRecipeSuggestionsForCategory(category));
     }
+    
+    // Reload the recipe catalog from its data file without a restart
+    @PostMapping("/recipes/reload")
+    public ResponseEntity<String> reloadRecipes() {
+        try {
+            int count = recipeCatalog.reload();
+            return ResponseEntity.ok("Loaded " + count + " recipes");
+        } catch (IOException | RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Recipe reload failed, previous catalog kept: " + e.getMessage());
+        }
+    }
 }
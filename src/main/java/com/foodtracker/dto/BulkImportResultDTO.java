@@ -0,0 +1,120 @@
+package com.foodtracker.dto;
+
+import java.util.List;
+
+public class BulkImportResultDTO {
+    private int received;
+    private int imported;
+    private int failed;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+    private List<RowError> errors;
+
+    // Constructor - No Args
+    public BulkImportResultDTO() {
+    }
+
+    // Constructor - All Args
+    public BulkImportResultDTO(int received, int imported, int failed, long elapsedMillis,
+                               double rowsPerSecond, List<RowError> errors) {
+        this.received = received;
+        this.imported = imported;
+        this.failed = failed;
+        this.elapsedMillis = elapsedMillis;
+        this.rowsPerSecond = rowsPerSecond;
+        this.errors = errors;
+    }
+
+    // Getters and Setters
+    public int getReceived() {
+        return received;
+    }
+
+    public void setReceived(int received) {
+        this.received = received;
+    }
+
+    public int getImported() {
+        return imported;
+    }
+
+    public void setImported(int imported) {
+        this.imported = imported;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public double getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public void setRowsPerSecond(double rowsPerSecond) {
+        this.rowsPerSecond = rowsPerSecond;
+    }
+
+    // Only the first errors are kept; failed has the full count
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<RowError> errors) {
+        this.errors = errors;
+    }
+
+    public static class RowError {
+        private int row;
+        private String message;
+
+        // Constructor - No Args
+        public RowError() {
+        }
+
+        // Constructor - All Args
+        public RowError(int row, String message) {
+            this.row = row;
+            this.message = message;
+        }
+
+        // 1-based position of the row in the submitted data
+        public int getRow() {
+            return row;
+        }
+
+        public void setRow(int row) {
+            this.row = row;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "BulkImportResultDTO{" +
+                "received=" + received +
+                ", imported=" + imported +
+                ", failed=" + failed +
+                ", elapsedMillis=" + elapsedMillis +
+                ", rowsPerSecond=" + rowsPerSecond +
+                '}';
+    }
+}
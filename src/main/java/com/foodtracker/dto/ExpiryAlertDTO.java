@@ -0,0 +1,70 @@
+package com.foodtracker.dto;
+
+import com.foodtracker.model.FoodStatus;
+import java.time.Instant;
+import java.time.LocalDate;
+
+// An active food crossing into EXPIRING_SOON or EXPIRED
+public class ExpiryAlertDTO {
+    private Long foodId;
+    private FoodStatus status;
+    private LocalDate expiryDate;
+    private Instant dueAt;
+
+    // Constructor - No Args
+    public ExpiryAlertDTO() {
+    }
+
+    // Constructor - All Args
+    public ExpiryAlertDTO(Long foodId, FoodStatus status, LocalDate expiryDate, Instant dueAt) {
+        this.foodId = foodId;
+        this.status = status;
+        this.expiryDate = expiryDate;
+        this.dueAt = dueAt;
+    }
+
+    // Getters and Setters
+    public Long getFoodId() {
+        return foodId;
+    }
+
+    public void setFoodId(Long foodId) {
+        this.foodId = foodId;
+    }
+
+    // The status the food has just entered
+    public FoodStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(FoodStatus status) {
+        this.status = status;
+    }
+
+    public LocalDate getExpiryDate() {
+        return expiryDate;
+    }
+
+    public void setExpiryDate(LocalDate expiryDate) {
+        this.expiryDate = expiryDate;
+    }
+
+    // Start of the local day on which the status changed
+    public Instant getDueAt() {
+        return dueAt;
+    }
+
+    public void setDueAt(Instant dueAt) {
+        this.dueAt = dueAt;
+    }
+
+    @Override
+    public String toString() {
+        return "ExpiryAlertDTO{" +
+                "foodId=" + foodId +
+                ", status=" + status +
+                ", expiryDate=" + expiryDate +
+                ", dueAt=" + dueAt +
+                '}';
+    }
+}
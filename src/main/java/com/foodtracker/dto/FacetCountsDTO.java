@@ -0,0 +1,78 @@
+package com.foodtracker.dto;
+
+import java.util.Map;
+
+// How many foods match a facet filter, broken down by each facet
+public class FacetCountsDTO {
+    private int count;
+    private Map<String, Integer> byCategory;
+    private Map<String, Integer> byStatus;
+    private Map<String, Integer> byUnit;
+    private Map<String, Integer> byDonated;
+
+    // Constructor - No Args
+    public FacetCountsDTO() {
+    }
+
+    // Constructor - All Args
+    public FacetCountsDTO(int count, Map<String, Integer> byCategory, Map<String, Integer> byStatus,
+                          Map<String, Integer> byUnit, Map<String, Integer> byDonated) {
+        this.count = count;
+        this.byCategory = byCategory;
+        this.byStatus = byStatus;
+        this.byUnit = byUnit;
+        this.byDonated = byDonated;
+    }
+
+    // Getters and Setters
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+
+    public Map<String, Integer> getByCategory() {
+        return byCategory;
+    }
+
+    public void setByCategory(Map<String, Integer> byCategory) {
+        this.byCategory = byCategory;
+    }
+
+    public Map<String, Integer> getByStatus() {
+        return byStatus;
+    }
+
+    public void setByStatus(Map<String, Integer> byStatus) {
+        this.byStatus = byStatus;
+    }
+
+    public Map<String, Integer> getByUnit() {
+        return byUnit;
+    }
+
+    public void setByUnit(Map<String, Integer> byUnit) {
+        this.byUnit = byUnit;
+    }
+
+    public Map<String, Integer> getByDonated() {
+        return byDonated;
+    }
+
+    public void setByDonated(Map<String, Integer> byDonated) {
+        this.byDonated = byDonated;
+    }
+
+    @Override
+    public String toString() {
+        return "FacetCountsDTO{" +
+                "count=" + count +
+                ", byCategory=" + byCategory +
+                ", byStatus=" + byStatus +
+                ", byUnit=" + byUnit +
+                ", byDonated=" + byDonated +
+                '}';
+    }
+}
@@ -0,0 +1,82 @@
+package com.foodtracker.dto;
+
+import java.util.List;
+
+public class FoodChangesDTO {
+    private long version;
+    private boolean fullSnapshot;
+    private boolean hasMore;
+    private List<FoodDTO> upserted;
+    private List<Long> deleted;
+
+    // Constructor - No Args
+    public FoodChangesDTO() {
+    }
+
+    // Constructor - All Args
+    public FoodChangesDTO(long version, boolean fullSnapshot, boolean hasMore,
+                          List<FoodDTO> upserted, List<Long> deleted) {
+        this.version = version;
+        this.fullSnapshot = fullSnapshot;
+        this.hasMore = hasMore;
+        this.upserted = upserted;
+        this.deleted = deleted;
+    }
+
+    // Getters and Setters
+
+    // Pass back as since on the next call
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    // When true, upserted is the whole active inventory and replaces the client's copy
+    public boolean isFullSnapshot() {
+        return fullSnapshot;
+    }
+
+    public void setFullSnapshot(boolean fullSnapshot) {
+        this.fullSnapshot = fullSnapshot;
+    }
+
+    // More changes are waiting; call again with the returned version
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    public List<FoodDTO> getUpserted() {
+        return upserted;
+    }
+
+    public void setUpserted(List<FoodDTO> upserted) {
+        this.upserted = upserted;
+    }
+
+    // Ids that left the active inventory (deleted or donated)
+    public List<Long> getDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(List<Long> deleted) {
+        this.deleted = deleted;
+    }
+
+    @Override
+    public String toString() {
+        return "FoodChangesDTO{" +
+                "version=" + version +
+                ", fullSnapshot=" + fullSnapshot +
+                ", hasMore=" + hasMore +
+                ", upserted=" + (upserted != null ? upserted.size() : 0) +
+                ", deleted=" + (deleted != null ? deleted.size() : 0) +
+                '}';
+    }
+}
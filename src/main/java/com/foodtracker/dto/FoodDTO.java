@@ -1,5 +1,6 @@
 package com.foodtracker.dto;
 
+import com.foodtracker.model.FoodStatus;
 import java.time.LocalDate;
 
 public class FoodDTO {
@@ -10,8 +11,9 @@ public class FoodDTO {
     private LocalDate expiryDate;
     private LocalDate addedDate;
     private String category;
-    private String status;
+    private FoodStatus status;
     private Long daysUntilExpiry;
+    private Long version;
 
     // Constructor - No Args
     public FoodDTO() {
@@ -19,7 +21,7 @@ public class FoodDTO {
 
     // Constructor - All Args
     public FoodDTO(Long id, String name, Integer quantity, String unit, LocalDate expiryDate, 
-                   LocalDate addedDate, String category, String status, Long daysUntilExpiry) {
+                   LocalDate addedDate, String category, FoodStatus status, Long daysUntilExpiry, Long version) {
         this.id = id;
         this.name = name;
         this.quantity = quantity;
@@ -29,6 +31,14 @@ public class FoodDTO {
         this.category = category;
         this.status = status;
         this.daysUntilExpiry = daysUntilExpiry;
+        this.version = version;
+    }
+
+    // Constructor - stored columns only, used by JPQL constructor projections.
+    // Status and daysUntilExpiry depend on the current day and are filled in by the service.
+    public FoodDTO(Long id, String name, Integer quantity, String unit, LocalDate expiryDate,
+                   LocalDate addedDate, String category, Long version) {
+        this(id, name, quantity, unit, expiryDate, addedDate, category, null, null, version);
     }
 
     // Getters and Setters
@@ -88,11 +98,11 @@ public class FoodDTO {
         this.category = category;
     }
 
-    public String getStatus() {
+    public FoodStatus getStatus() {
         return status;
     }
 
-    public void setStatus(String status) {
+    public void setStatus(FoodStatus status) {
         this.status = status;
     }
 
@@ -104,6 +114,14 @@ public class FoodDTO {
         this.daysUntilExpiry = daysUntilExpiry;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     // Builder Pattern
     public static Builder builder() {
         return new Builder();
@@ -117,8 +135,9 @@ public class FoodDTO {
         private LocalDate expiryDate;
         private LocalDate addedDate;
         private String category;
-        private String status;
+        private FoodStatus status;
         private Long daysUntilExpiry;
+        private Long version;
 
         public Builder id(Long id) {
             this.id = id;
@@ -155,7 +174,7 @@ public class FoodDTO {
             return this;
         }
 
-        public Builder status(String status) {
+        public Builder status(FoodStatus status) {
             this.status = status;
             return this;
         }
@@ -165,8 +184,13 @@ public class FoodDTO {
             return this;
         }
 
+        public Builder version(Long version) {
+            this.version = version;
+            return this;
+        }
+
         public FoodDTO build() {
-            return new FoodDTO(id, name, quantity, unit, expiryDate, addedDate, category, status, daysUntilExpiry);
+            return new FoodDTO(id, name, quantity, unit, expiryDate, addedDate, category, status, daysUntilExpiry, version);
         }
     }
 
@@ -180,8 +204,9 @@ public class FoodDTO {
                 ", expiryDate=" + expiryDate +
                 ", addedDate=" + addedDate +
                 ", category='" + category + '\'' +
-                ", status='" + status + '\'' +
+                ", status=" + status +
                 ", daysUntilExpiry=" + daysUntilExpiry +
+                ", version=" + version +
                 '}';
     }
 }
@@ -0,0 +1,44 @@
+package com.foodtracker.dto;
+
+import java.util.List;
+
+public class FoodPageDTO {
+    private List<FoodDTO> items;
+    private String nextCursor;
+
+    // Constructor - No Args
+    public FoodPageDTO() {
+    }
+
+    // Constructor - All Args
+    public FoodPageDTO(List<FoodDTO> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters and Setters
+    public List<FoodDTO> getItems() {
+        return items;
+    }
+
+    public void setItems(List<FoodDTO> items) {
+        this.items = items;
+    }
+
+    // Cursor for the next page, or null when this is the last page
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    @Override
+    public String toString() {
+        return "FoodPageDTO{" +
+                "items=" + (items != null ? items.size() : 0) +
+                ", nextCursor='" + nextCursor + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,192 @@
+package com.foodtracker.dto;
+
+import com.foodtracker.model.FoodStatus;
+import java.time.LocalDate;
+import java.util.List;
+
+// Filters, sort, projection and limit for GET /api/foods/query. Unset filters match everything;
+// values within categories and statuses are alternatives, while the filters combine with AND.
+public class FoodQueryDTO {
+    private String namePrefix;
+    private List<String> categories;
+    private List<FoodStatus> statuses;
+    private LocalDate expiryFrom;
+    private LocalDate expiryTo;
+    private Boolean donated;
+    private String sort;
+    private List<String> fields;
+    private Integer limit;
+
+    // Constructor - No Args
+    public FoodQueryDTO() {
+    }
+
+    // Constructor - All Args
+    public FoodQueryDTO(String namePrefix, List<String> categories, List<FoodStatus> statuses,
+                        LocalDate expiryFrom, LocalDate expiryTo, Boolean donated, String sort,
+                        List<String> fields, Integer limit) {
+        this.namePrefix = namePrefix;
+        this.categories = categories;
+        this.statuses = statuses;
+        this.expiryFrom = expiryFrom;
+        this.expiryTo = expiryTo;
+        this.donated = donated;
+        this.sort = sort;
+        this.fields = fields;
+        this.limit = limit;
+    }
+
+    // Getters and Setters
+    public String getNamePrefix() {
+        return namePrefix;
+    }
+
+    public void setNamePrefix(String namePrefix) {
+        this.namePrefix = namePrefix;
+    }
+
+    public List<String> getCategories() {
+        return categories;
+    }
+
+    public void setCategories(List<String> categories) {
+        this.categories = categories;
+    }
+
+    public List<FoodStatus> getStatuses() {
+        return statuses;
+    }
+
+    public void setStatuses(List<FoodStatus> statuses) {
+        this.statuses = statuses;
+    }
+
+    public LocalDate getExpiryFrom() {
+        return expiryFrom;
+    }
+
+    public void setExpiryFrom(LocalDate expiryFrom) {
+        this.expiryFrom = expiryFrom;
+    }
+
+    public LocalDate getExpiryTo() {
+        return expiryTo;
+    }
+
+    public void setExpiryTo(LocalDate expiryTo) {
+        this.expiryTo = expiryTo;
+    }
+
+    public Boolean getDonated() {
+        return donated;
+    }
+
+    public void setDonated(Boolean donated) {
+        this.donated = donated;
+    }
+
+    public String getSort() {
+        return sort;
+    }
+
+    public void setSort(String sort) {
+        this.sort = sort;
+    }
+
+    public List<String> getFields() {
+        return fields;
+    }
+
+    public void setFields(List<String> fields) {
+        this.fields = fields;
+    }
+
+    public Integer getLimit() {
+        return limit;
+    }
+
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
+
+    // Builder Pattern
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private String namePrefix;
+        private List<String> categories;
+        private List<FoodStatus> statuses;
+        private LocalDate expiryFrom;
+        private LocalDate expiryTo;
+        private Boolean donated;
+        private String sort;
+        private List<String> fields;
+        private Integer limit;
+
+        public Builder namePrefix(String namePrefix) {
+            this.namePrefix = namePrefix;
+            return this;
+        }
+
+        public Builder categories(List<String> categories) {
+            this.categories = categories;
+            return this;
+        }
+
+        public Builder statuses(List<FoodStatus> statuses) {
+            this.statuses = statuses;
+            return this;
+        }
+
+        public Builder expiryFrom(LocalDate expiryFrom) {
+            this.expiryFrom = expiryFrom;
+            return this;
+        }
+
+        public Builder expiryTo(LocalDate expiryTo) {
+            this.expiryTo = expiryTo;
+            return this;
+        }
+
+        public Builder donated(Boolean donated) {
+            this.donated = donated;
+            return this;
+        }
+
+        public Builder sort(String sort) {
+            this.sort = sort;
+            return this;
+        }
+
+        public Builder fields(List<String> fields) {
+            this.fields = fields;
+            return this;
+        }
+
+        public Builder limit(Integer limit) {
+            this.limit = limit;
+            return this;
+        }
+
+        public FoodQueryDTO build() {
+            return new FoodQueryDTO(namePrefix, categories, statuses, expiryFrom, expiryTo, donated, sort, fields, limit);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "FoodQueryDTO{" +
+                "namePrefix='" + namePrefix + '\'' +
+                ", categories=" + categories +
+                ", statuses=" + statuses +
+                ", expiryFrom=" + expiryFrom +
+                ", expiryTo=" + expiryTo +
+                ", donated=" + donated +
+                ", sort='" + sort + '\'' +
+                ", fields=" + fields +
+                ", limit=" + limit +
+                '}';
+    }
+}
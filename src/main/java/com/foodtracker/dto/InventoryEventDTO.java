@@ -0,0 +1,52 @@
+package com.foodtracker.dto;
+
+public class InventoryEventDTO {
+    private String type;
+    private Long id;
+    private FoodDTO food;
+
+    // Constructor - No Args
+    public InventoryEventDTO() {
+    }
+
+    // Constructor - All Args
+    public InventoryEventDTO(String type, Long id, FoodDTO food) {
+        this.type = type;
+        this.id = id;
+        this.food = food;
+    }
+
+    // Getters and Setters
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    // Current state, or null once the food has left the active inventory
+    public FoodDTO getFood() {
+        return food;
+    }
+
+    public void setFood(FoodDTO food) {
+        this.food = food;
+    }
+
+    @Override
+    public String toString() {
+        return "InventoryEventDTO{" +
+                "type='" + type + '\'' +
+                ", id=" + id +
+                '}';
+    }
+}
@@ -0,0 +1,54 @@
+package com.foodtracker.dto;
+
+import java.util.List;
+
+public class RankedRecipeDTO {
+    private RecipeDTO recipe;
+    private double score;
+    private List<String> matchedIngredients;
+
+    // Constructor - No Args
+    public RankedRecipeDTO() {
+    }
+
+    // Constructor - All Args
+    public RankedRecipeDTO(RecipeDTO recipe, double score, List<String> matchedIngredients) {
+        this.recipe = recipe;
+        this.score = score;
+        this.matchedIngredients = matchedIngredients;
+    }
+
+    // Getters and Setters
+    public RecipeDTO getRecipe() {
+        return recipe;
+    }
+
+    public void setRecipe(RecipeDTO recipe) {
+        this.recipe = recipe;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+
+    public List<String> getMatchedIngredients() {
+        return matchedIngredients;
+    }
+
+    public void setMatchedIngredients(List<String> matchedIngredients) {
+        this.matchedIngredients = matchedIngredients;
+    }
+
+    @Override
+    public String toString() {
+        return "RankedRecipeDTO{" +
+                "recipe=" + (recipe != null ? recipe.getName() : null) +
+                ", score=" + score +
+                ", matchedIngredients=" + matchedIngredients +
+                '}';
+    }
+}
@@ -0,0 +1,195 @@
+package com.foodtracker.index;
+
+import com.foodtracker.model.Food;
+import com.foodtracker.repository.FoodExpiryView;
+import com.foodtracker.repository.FoodRepository;
+import com.foodtracker.service.FoodChangeEvent;
+import com.foodtracker.service.StatisticsDTO;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+// Active foods bucketed by expiry epoch day, with status counts kept up to date on every change.
+// Status only moves at day boundaries, so the midnight rollover just re-derives the counts from
+// the bucket sizes instead of rescanning rows.
+@Component
+@ConditionalOnProperty(name = "foodtracker.expiry-index.enabled", havingValue = "true", matchIfMissing = true)
+@DependsOn("databaseInitializer")
+public class ExpiryIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpiryIndex.class);
+    private static final int MISSING = Integer.MIN_VALUE;
+
+    @Autowired
+    private FoodRepository foodRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Expiry epoch day -> ids of active foods expiring that day
+    private final TreeMap<Integer, LongArrayList> buckets = new TreeMap<>();
+    // Food id -> expiry epoch day of the bucket holding it
+    private final LongIntHashMap dayById = new LongIntHashMap(MISSING);
+
+    private int today;
+    private int expiredCount;
+    private int expiringSoonCount;
+    private int goodCount;
+    private int expiringThisWeekCount;
+
+    @PostConstruct
+    public void load() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.executeWithoutResult(status -> {
+            synchronized (this) {
+                today = (int) LocalDate.now().toEpochDay();
+                try (Stream<FoodExpiryView> rows = foodRepository.streamActiveExpiry()) {
+                    rows.forEach(row -> put(row.getId(), row.getExpiryEpochDay()));
+                }
+            }
+        });
+        log.info("Expiry index loaded with {} active foods in {} buckets", size(), buckets.size());
+    }
+
+    // Relies on events arriving in commit order, so a late update never re-adds a removed food
+    @EventListener
+    public void onFoodChange(FoodChangeEvent event) {
+        Food food = event.getFood();
+        if (event.isActive()) {
+            put(food.getId(), food.getExpiryEpochDay());
+        } else {
+            remove(food.getId());
+        }
+    }
+
+    public synchronized void put(long id, int expiryDay) {
+        remove(id);
+        buckets.computeIfAbsent(expiryDay, day -> new LongArrayList()).add(id);
+        dayById.put(id, expiryDay);
+        count(expiryDay, 1);
+    }
+
+    public synchronized void remove(long id) {
+        int expiryDay = dayById.remove(id);
+        if (expiryDay == MISSING) {
+            return;
+        }
+        LongArrayList bucket = buckets.get(expiryDay);
+        bucket.removeValue(id);
+        if (bucket.isEmpty()) {
+            buckets.remove(expiryDay);
+        }
+        count(expiryDay, -1);
+    }
+
+    // Shift the status boundaries to the new day; O(buckets), no rows are touched.
+    // Listeners are told which foods changed status, outside the lock.
+    @Scheduled(cron = "0 0 0 * * *")
+    public void rollover() {
+        ExpiryTransitionEvent transition;
+        synchronized (this) {
+            transition = rolloverLocked();
+        }
+        if (transition != null && !transition.isEmpty()) {
+            eventPublisher.publishEvent(transition);
+        }
+    }
+
+    private ExpiryTransitionEvent rolloverLocked() {
+        int previousDay = today;
+        int newDay = (int) LocalDate.now().toEpochDay();
+        if (newDay == previousDay) {
+            return null;
+        }
+        today = newDay;
+        // Was GOOD (expiry > previous + 3), now EXPIRING_SOON (new <= expiry <= new + 3)
+        long[] nowExpiringSoon = collect(Math.max(previousDay + Food.EXPIRING_SOON_DAYS + 1, newDay),
+                newDay + Food.EXPIRING_SOON_DAYS);
+        // Was not expired (expiry >= previous), now EXPIRED (expiry < new)
+        long[] nowExpired = collect(previousDay, newDay - 1);
+        expiredCount = 0;
+        expiringSoonCount = 0;
+        goodCount = 0;
+        expiringThisWeekCount = 0;
+        for (Map.Entry<Integer, LongArrayList> bucket : buckets.entrySet()) {
+            count(bucket.getKey(), bucket.getValue().size());
+        }
+        log.debug("Expiry index rolled over to {}", LocalDate.ofEpochDay(today));
+        return new ExpiryTransitionEvent(LocalDate.ofEpochDay(today), nowExpiringSoon, nowExpired);
+    }
+
+    // Ids of all foods expiring on days in [fromDay, toDay]
+    private long[] collect(int fromDay, int toDay) {
+        LongArrayList ids = new LongArrayList();
+        if (fromDay <= toDay) {
+            for (LongArrayList bucket : buckets.subMap(fromDay, true, toDay, true).values()) {
+                for (int i = 0; i < bucket.size(); i++) {
+                    ids.add(bucket.get(i));
+                }
+            }
+        }
+        return ids.toArray();
+    }
+
+    public StatisticsDTO getStatistics() {
+        checkRollover();
+        synchronized (this) {
+            return buildStatistics();
+        }
+    }
+
+    private StatisticsDTO buildStatistics() {
+        return StatisticsDTO.builder()
+                .totalItems(size())
+                .expiredCount(expiredCount)
+                .expiringSoonCount(expiringSoonCount)
+                .goodCount(goodCount)
+                .expiringThisWeekCount(expiringThisWeekCount)
+                .build();
+    }
+
+    public synchronized int size() {
+        return dayById.size();
+    }
+
+    // Catch up if the scheduled rollover has not run yet, e.g. after the host slept through midnight
+    private void checkRollover() {
+        if (LocalDate.now().toEpochDay() != currentDay()) {
+            rollover();
+        }
+    }
+
+    private synchronized int currentDay() {
+        return today;
+    }
+
+    private void count(int expiryDay, int delta) {
+        if (expiryDay < today) {
+            expiredCount += delta;
+        } else if (expiryDay <= today + Food.EXPIRING_SOON_DAYS) {
+            expiringSoonCount += delta;
+        } else {
+            goodCount += delta;
+        }
+        if (expiryDay >= today && expiryDay < today + 7) {
+            expiringThisWeekCount += delta;
+        }
+    }
+}
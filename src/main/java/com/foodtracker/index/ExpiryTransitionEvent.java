@@ -0,0 +1,44 @@
+package com.foodtracker.index;
+
+import java.time.LocalDate;
+
+// Published by ExpiryIndex when the day rolls over, listing the active foods whose status changed
+public class ExpiryTransitionEvent {
+
+    private final LocalDate date;
+    private final long[] nowExpiringSoon;
+    private final long[] nowExpired;
+
+    public ExpiryTransitionEvent(LocalDate date, long[] nowExpiringSoon, long[] nowExpired) {
+        this.date = date;
+        this.nowExpiringSoon = nowExpiringSoon;
+        this.nowExpired = nowExpired;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    // Ids that went from GOOD to EXPIRING_SOON
+    public long[] getNowExpiringSoon() {
+        return nowExpiringSoon;
+    }
+
+    // Ids that became EXPIRED (normally from EXPIRING_SOON; from GOOD if several days were skipped)
+    public long[] getNowExpired() {
+        return nowExpired;
+    }
+
+    public boolean isEmpty() {
+        return nowExpiringSoon.length == 0 && nowExpired.length == 0;
+    }
+
+    @Override
+    public String toString() {
+        return "ExpiryTransitionEvent{" +
+                "date=" + date +
+                ", nowExpiringSoon=" + nowExpiringSoon.length +
+                ", nowExpired=" + nowExpired.length +
+                '}';
+    }
+}
@@ -0,0 +1,261 @@
+package com.foodtracker.index;
+
+import com.foodtracker.dto.FacetCountsDTO;
+import com.foodtracker.model.Food;
+import com.foodtracker.model.FoodStatus;
+import com.foodtracker.repository.DonatedFoodRepository;
+import com.foodtracker.repository.FoodFacetView;
+import com.foodtracker.repository.FoodRepository;
+import com.foodtracker.service.FoodChangeEvent;
+import jakarta.annotation.PostConstruct;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+// Roaring bitmaps over every food, active, donated or archived, for counting combined
+// category x status x unit x donated filters without touching rows. Categories and units are
+// dictionary-encoded to small ints with one bitmap per code; status is answered by OR-ing the
+// per-expiry-day bitmaps in the status's day range, so nothing needs rebuilding at midnight.
+// Foods are addressed by dense slots rather than ids so the bitmaps stay compact.
+@Component
+@DependsOn("databaseInitializer")
+public class FoodFacetIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(FoodFacetIndex.class);
+    private static final int MISSING = -1;
+
+    @Autowired
+    private FoodRepository foodRepository;
+
+    @Autowired
+    private DonatedFoodRepository donatedFoodRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final StringDictionary categories = new StringDictionary();
+    private final StringDictionary units = new StringDictionary();
+    // Category or unit code -> slots of foods with it
+    private final List<RoaringBitmap> byCategory = new ArrayList<>();
+    private final List<RoaringBitmap> byUnit = new ArrayList<>();
+    // Expiry epoch day -> slots of foods expiring that day
+    private final TreeMap<Integer, RoaringBitmap> byExpiryDay = new TreeMap<>();
+    private final RoaringBitmap donated = new RoaringBitmap();
+    private final RoaringBitmap all = new RoaringBitmap();
+
+    // Food id -> slot, and per slot the codes needed to clear it again
+    private final LongIntHashMap slotById = new LongIntHashMap(MISSING);
+    private int[] categoryBySlot = new int[1024];
+    private int[] unitBySlot = new int[1024];
+    private int[] dayBySlot = new int[1024];
+    private final List<Integer> freeSlots = new ArrayList<>();
+    private int nextSlot;
+
+    @PostConstruct
+    public void load() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.executeWithoutResult(status -> {
+            try (Stream<FoodFacetView> rows = foodRepository.streamFacets()) {
+                rows.forEach(this::put);
+            }
+            try (Stream<FoodFacetView> rows = donatedFoodRepository.streamFacets()) {
+                rows.forEach(this::put);
+            }
+        });
+        log.info("Facet index loaded with {} foods, {} categories and {} units",
+                all.getCardinality(), categories.size(), units.size());
+    }
+
+    // Archiving moves donated foods to another table without changing them, so it needs no event
+    @EventListener
+    public void onFoodChange(FoodChangeEvent event) {
+        Food food = event.getFood();
+        if (event.getType() == FoodChangeEvent.Type.DELETED) {
+            remove(food.getId());
+        } else {
+            put(food.getId(), food.getCategory(), food.getUnit(), food.getExpiryEpochDay(),
+                    Boolean.TRUE.equals(food.getDonated()));
+        }
+    }
+
+    private void put(FoodFacetView row) {
+        put(row.getId(), row.getCategory(), row.getUnit(), (int) row.getExpiryDate().toEpochDay(),
+                Boolean.TRUE.equals(row.getDonated()));
+    }
+
+    public void put(long id, String category, String unit, int expiryDay, boolean isDonated) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            int slot = freeSlots.isEmpty() ? allocateSlot() : freeSlots.remove(freeSlots.size() - 1);
+            int categoryCode = categories.encode(category);
+            int unitCode = units.encode(unit);
+            bitmap(byCategory, categoryCode).add(slot);
+            bitmap(byUnit, unitCode).add(slot);
+            byExpiryDay.computeIfAbsent(expiryDay, day -> new RoaringBitmap()).add(slot);
+            if (isDonated) {
+                donated.add(slot);
+            }
+            all.add(slot);
+            categoryBySlot[slot] = categoryCode;
+            unitBySlot[slot] = unitCode;
+            dayBySlot[slot] = expiryDay;
+            slotById.put(id, slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Count the foods matching every given facet (any of the values within one facet), with a
+    // breakdown of the matches by each facet. Null or empty means no constraint on that facet;
+    // category and unit values match case-insensitively.
+    public FacetCountsDTO count(Collection<String> categoryFilter, Collection<FoodStatus> statusFilter,
+                                Collection<String> unitFilter, Boolean donatedFilter) {
+        int today = (int) LocalDate.now().toEpochDay();
+        lock.readLock().lock();
+        try {
+            RoaringBitmap[] statusBitmaps = new RoaringBitmap[FoodStatus.values().length];
+            for (FoodStatus status : FoodStatus.values()) {
+                statusBitmaps[status.ordinal()] = statusBitmap(status, today);
+            }
+
+            RoaringBitmap matches = all.clone();
+            if (categoryFilter != null && !categoryFilter.isEmpty()) {
+                matches.and(union(byCategory, codesMatching(categories, categoryFilter)));
+            }
+            if (unitFilter != null && !unitFilter.isEmpty()) {
+                matches.and(union(byUnit, codesMatching(units, unitFilter)));
+            }
+            if (statusFilter != null && !statusFilter.isEmpty()) {
+                matches.and(FastAggregation.or(statusFilter.stream()
+                        .map(status -> statusBitmaps[status.ordinal()]).iterator()));
+            }
+            if (donatedFilter != null) {
+                if (donatedFilter) {
+                    matches.and(donated);
+                } else {
+                    matches.andNot(donated);
+                }
+            }
+
+            int count = matches.getCardinality();
+            Map<String, Integer> statusCounts = new LinkedHashMap<>();
+            for (FoodStatus status : FoodStatus.values()) {
+                statusCounts.put(status.name(), RoaringBitmap.andCardinality(matches, statusBitmaps[status.ordinal()]));
+            }
+            int donatedCount = RoaringBitmap.andCardinality(matches, donated);
+            Map<String, Integer> donatedCounts = new LinkedHashMap<>();
+            donatedCounts.put("false", count - donatedCount);
+            donatedCounts.put("true", donatedCount);
+            return new FacetCountsDTO(count, breakdown(matches, byCategory, categories), statusCounts,
+                    breakdown(matches, byUnit, units), donatedCounts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private RoaringBitmap statusBitmap(FoodStatus status, int today) {
+        NavigableMap<Integer, RoaringBitmap> days = switch (status) {
+            case EXPIRED -> byExpiryDay.headMap(today, false);
+            case EXPIRING_SOON -> byExpiryDay.subMap(today, true, today + Food.EXPIRING_SOON_DAYS, true);
+            case GOOD -> byExpiryDay.tailMap(today + Food.EXPIRING_SOON_DAYS, false);
+        };
+        return FastAggregation.or(days.values().iterator());
+    }
+
+    private static List<Integer> codesMatching(StringDictionary dictionary, Collection<String> values) {
+        List<Integer> codes = new ArrayList<>();
+        for (int code = 0; code < dictionary.size(); code++) {
+            String encoded = dictionary.decode(code);
+            for (String value : values) {
+                if (encoded != null && encoded.equalsIgnoreCase(value.trim())) {
+                    codes.add(code);
+                    break;
+                }
+            }
+        }
+        return codes;
+    }
+
+    private static RoaringBitmap union(List<RoaringBitmap> bitmaps, List<Integer> codes) {
+        return FastAggregation.or(codes.stream().map(bitmaps::get).iterator());
+    }
+
+    // Matches per dictionary value, leaving out values with none
+    private static Map<String, Integer> breakdown(RoaringBitmap matches, List<RoaringBitmap> bitmaps,
+                                                  StringDictionary dictionary) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (int code = 0; code < bitmaps.size(); code++) {
+            int count = RoaringBitmap.andCardinality(matches, bitmaps.get(code));
+            if (count > 0) {
+                counts.put(dictionary.decode(code), count);
+            }
+        }
+        return counts;
+    }
+
+    private static RoaringBitmap bitmap(List<RoaringBitmap> bitmaps, int code) {
+        while (bitmaps.size() <= code) {
+            bitmaps.add(new RoaringBitmap());
+        }
+        return bitmaps.get(code);
+    }
+
+    private int allocateSlot() {
+        int slot = nextSlot++;
+        if (slot == categoryBySlot.length) {
+            int capacity = categoryBySlot.length * 2;
+            categoryBySlot = Arrays.copyOf(categoryBySlot, capacity);
+            unitBySlot = Arrays.copyOf(unitBySlot, capacity);
+            dayBySlot = Arrays.copyOf(dayBySlot, capacity);
+        }
+        return slot;
+    }
+
+    private void removeLocked(long id) {
+        int slot = slotById.remove(id);
+        if (slot == MISSING) {
+            return;
+        }
+        byCategory.get(categoryBySlot[slot]).remove(slot);
+        byUnit.get(unitBySlot[slot]).remove(slot);
+        RoaringBitmap day = byExpiryDay.get(dayBySlot[slot]);
+        day.remove(slot);
+        if (day.isEmpty()) {
+            byExpiryDay.remove(dayBySlot[slot]);
+        }
+        donated.remove(slot);
+        all.remove(slot);
+        freeSlots.add(slot);
+    }
+}
@@ -0,0 +1,448 @@
+package com.foodtracker.index;
+
+import com.foodtracker.model.Food;
+import com.foodtracker.repository.FoodRepository;
+import com.foodtracker.repository.FoodSearchView;
+import com.foodtracker.service.FoodChangeEvent;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.IntConsumer;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+// Trigram index over the names and categories of active foods, kept in sync through FoodChangeEvents.
+// Words are padded as "$$word$", so leading trigrams double as a prefix index; queries are padded
+// only at the front, so the last word can still be half typed. Posting lists are bitmaps of
+// document slots, so a change touches each of the food's trigrams in O(log n), and a search counts
+// shared trigrams with bitmap operations instead of comparing strings for every candidate.
+@Component
+public class FoodSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(FoodSearchIndex.class);
+    private static final int MISSING = -1;
+    // Share of query trigrams a food must contain to count as a (possibly misspelt) match
+    private static final double MIN_SIMILARITY = 0.5;
+    private static final double CATEGORY_WEIGHT = 0.6;
+    private static final double PREFIX_BONUS = 0.5;
+    private static final double SUBSTRING_BONUS = 0.25;
+    // Per-thread shared-trigram counts by slot, zeroed after each search over just the slots it
+    // touched, so a search costs its candidates rather than a catalog-sized allocation
+    private static final ThreadLocal<short[]> SHARED_COUNTS = ThreadLocal.withInitial(() -> new short[0]);
+
+    @Autowired
+    private FoodRepository foodRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Trigram -> slots of foods whose name contains it
+    private final Map<String, RoaringBitmap> postings = new HashMap<>();
+    // Category -> slots of foods in it; categories are few, so they are scored once per search
+    private final Map<String, RoaringBitmap> slotsByCategory = new HashMap<>();
+    // Food id -> slot in the document arrays, and back
+    private final LongIntHashMap slotById = new LongIntHashMap(MISSING);
+    private long[] idsBySlot = new long[16];
+    // Ranking reads only the length of each name, so it is kept flat rather than behind the String
+    private int[] nameLengthsBySlot = new int[16];
+    private final List<String> names = new ArrayList<>();
+    private final List<String> categories = new ArrayList<>();
+    private final List<Integer> freeSlots = new ArrayList<>();
+
+    @PostConstruct
+    public void load() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.executeWithoutResult(status -> {
+            try (Stream<FoodSearchView> rows = foodRepository.streamActiveSearchable()) {
+                rows.forEach(row -> put(row.getId(), row.getName(), row.getCategory()));
+            }
+        });
+        log.info("Search index loaded with {} foods and {} trigrams", slotById.size(), postings.size());
+    }
+
+    @EventListener
+    public void onFoodChange(FoodChangeEvent event) {
+        Food food = event.getFood();
+        if (event.isActive()) {
+            put(food.getId(), food.getName(), food.getCategory());
+        } else {
+            remove(food.getId());
+        }
+    }
+
+    public void put(long id, String name, String category) {
+        String normalizedName = normalize(name);
+        String normalizedCategory = normalize(category);
+        // Consumes and most edits leave the indexed text alone
+        lock.readLock().lock();
+        try {
+            int slot = slotById.get(id);
+            if (slot != MISSING && names.get(slot).equals(normalizedName)
+                    && categories.get(slot).equals(normalizedCategory)) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            int slot;
+            if (freeSlots.isEmpty()) {
+                slot = names.size();
+                names.add(normalizedName);
+                categories.add(normalizedCategory);
+            } else {
+                slot = freeSlots.remove(freeSlots.size() - 1);
+                names.set(slot, normalizedName);
+                categories.set(slot, normalizedCategory);
+            }
+            slotById.put(id, slot);
+            if (slot == idsBySlot.length) {
+                idsBySlot = Arrays.copyOf(idsBySlot, slot * 2);
+                nameLengthsBySlot = Arrays.copyOf(nameLengthsBySlot, slot * 2);
+            }
+            idsBySlot[slot] = id;
+            nameLengthsBySlot[slot] = normalizedName.length();
+            for (String gram : grams(normalizedName, true)) {
+                postings.computeIfAbsent(gram, g -> new RoaringBitmap()).add(slot);
+            }
+            slotsByCategory.computeIfAbsent(normalizedCategory, c -> new RoaringBitmap()).add(slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Ids of the best matching foods, best first. A name sharing c of the n query trigrams scores
+    // c/n, plus a bonus when it starts with or contains the query; a category scores
+    // CATEGORY_WEIGHT times its share. Names are walked from the most shared trigrams down, so a
+    // full page of strong matches ends the walk before the long tail of weak ones.
+    public List<Long> search(String query, int limit) {
+        String normalizedQuery = normalize(query);
+        Set<String> queryGrams = grams(normalizedQuery, false);
+        if (queryGrams.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        int n = queryGrams.size();
+        int required = (int) Math.ceil(n * MIN_SIMILARITY);
+
+        lock.readLock().lock();
+        SharedCounter counter = null;
+        try {
+            counter = countShared(queryGrams, required);
+            int[][] tiers = counter.tiers(n);
+            // A name can only contain the query when the index holds every unpadded query trigram
+            boolean unpadded = false;
+            boolean substringsPossible = true;
+            for (String gram : queryGrams) {
+                if (gram.charAt(0) != '$') {
+                    unpadded = true;
+                    substringsPossible &= postings.containsKey(gram);
+                }
+            }
+            Map<String, Double> categoryScores = new HashMap<>();
+            slotsByCategory.forEach((category, slots) -> {
+                double score = CATEGORY_WEIGHT * containment(queryGrams, grams(category, true));
+                if (score >= MIN_SIMILARITY) {
+                    categoryScores.put(category, score);
+                }
+            });
+            double bestCategory = categoryScores.values().stream().mapToDouble(Double::doubleValue).max().orElse(0);
+            PriorityQueue<Hit> top = new PriorityQueue<>(limit + 1, Hit.WORST_FIRST);
+
+            // Names sharing at least half of the query trigrams, most shared first
+            for (int count = n; count >= required; count--) {
+                double base = (double) count / n;
+                double bound = !substringsPossible ? base
+                        : count == n ? base + PREFIX_BONUS : Math.max(base, MIN_SIMILARITY) + SUBSTRING_BONUS;
+                bound = Math.max(bound, bestCategory);
+                if (settled(top, limit, bound)) {
+                    break;
+                }
+                for (int slot : tiers[count]) {
+                    // Only read the strings when the best this food could score would enter the page
+                    if (!admits(top, limit, slot, bound)) {
+                        continue;
+                    }
+                    double score = base;
+                    if (substringsPossible) {
+                        String name = names.get(slot);
+                        if (name.startsWith(normalizedQuery)) {
+                            score += PREFIX_BONUS;
+                        } else if (name.contains(normalizedQuery)) {
+                            score = Math.max(score, MIN_SIMILARITY) + SUBSTRING_BONUS;
+                        }
+                    }
+                    offer(top, limit, slot, Math.max(score, categoryScore(categoryScores, slot)));
+                }
+            }
+
+            // Exact substrings in the middle of a word, which share few padded trigrams
+            RoaringBitmap substrings = null;
+            if (unpadded && substringsPossible && !settled(top, limit, MIN_SIMILARITY + SUBSTRING_BONUS)) {
+                substrings = substringCandidates(queryGrams);
+                IntIterator substringIterator = substrings.getIntIterator();
+                while (substringIterator.hasNext()) {
+                    int slot = substringIterator.next();
+                    if (!counter.reached(slot)
+                            && admits(top, limit, slot, Math.max(MIN_SIMILARITY + SUBSTRING_BONUS, bestCategory))) {
+                        double score = names.get(slot).contains(normalizedQuery) ? MIN_SIMILARITY + SUBSTRING_BONUS : 0;
+                        offer(top, limit, slot, Math.max(score, categoryScore(categoryScores, slot)));
+                    }
+                }
+            }
+
+            // Foods matching on category alone
+            for (Map.Entry<String, Double> category : categoryScores.entrySet()) {
+                if (settled(top, limit, category.getValue())) {
+                    continue;
+                }
+                RoaringBitmap slots = substrings == null ? slotsByCategory.get(category.getKey())
+                        : RoaringBitmap.andNot(slotsByCategory.get(category.getKey()), substrings);
+                IntIterator categoryIterator = slots.getIntIterator();
+                while (categoryIterator.hasNext()) {
+                    int slot = categoryIterator.next();
+                    if (!counter.reached(slot)) {
+                        offer(top, limit, slot, category.getValue());
+                    }
+                }
+            }
+            return ids(top);
+        } finally {
+            if (counter != null) {
+                counter.clear();
+            }
+            lock.readLock().unlock();
+        }
+    }
+
+    // Counts the query trigrams each name shares. A name reaching required is in one of the
+    // m - required + 1 rarest of the m posting lists, so the longer lists are only walked where
+    // they meet those.
+    private SharedCounter countShared(Set<String> queryGrams, int required) {
+        List<RoaringBitmap> lists = new ArrayList<>();
+        for (String gram : queryGrams) {
+            RoaringBitmap posting = postings.get(gram);
+            if (posting != null) {
+                lists.add(posting);
+            }
+        }
+        lists.sort(Comparator.comparingInt(RoaringBitmap::getCardinality));
+        int rare = lists.size() - required + 1;
+        RoaringBitmap candidates = rare > 0 ? FastAggregation.or(lists.subList(0, rare).iterator()) : new RoaringBitmap();
+
+        short[] shared = SHARED_COUNTS.get();
+        if (shared.length < names.size()) {
+            shared = new short[names.size() + names.size() / 2];
+            SHARED_COUNTS.set(shared);
+        }
+        SharedCounter counter = new SharedCounter(shared, required, candidates);
+        for (int i = 0; i < lists.size() && rare > 0; i++) {
+            (i < rare ? lists.get(i) : RoaringBitmap.and(candidates, lists.get(i))).forEach(counter);
+        }
+        return counter;
+    }
+
+    // Slots whose names contain every unpadded query trigram, the only ones that can contain the
+    // query itself, intersected rarest list first so the running result is small from the start
+    private RoaringBitmap substringCandidates(Set<String> queryGrams) {
+        List<RoaringBitmap> lists = new ArrayList<>();
+        for (String gram : queryGrams) {
+            if (gram.charAt(0) != '$') {
+                lists.add(postings.getOrDefault(gram, new RoaringBitmap()));
+            }
+        }
+        lists.sort(Comparator.comparingInt(RoaringBitmap::getCardinality));
+        RoaringBitmap substrings = lists.get(0).clone();
+        for (int i = 1; i < lists.size() && !substrings.isEmpty(); i++) {
+            substrings.and(lists.get(i));
+        }
+        return substrings;
+    }
+
+    private double categoryScore(Map<String, Double> categoryScores, int slot) {
+        return categoryScores.isEmpty() ? 0 : categoryScores.getOrDefault(categories.get(slot), 0.0);
+    }
+
+    // Nothing scoring at most the bound can enter a full page any more
+    private static boolean settled(PriorityQueue<Hit> top, int limit, double bound) {
+        return top.size() == limit && top.peek().score() > bound;
+    }
+
+    private boolean admits(PriorityQueue<Hit> top, int limit, int slot, double score) {
+        return top.size() < limit || Hit.compare(score, nameLengthsBySlot[slot], idsBySlot[slot], top.peek()) > 0;
+    }
+
+    private void offer(PriorityQueue<Hit> top, int limit, int slot, double score) {
+        if (score < MIN_SIMILARITY || !admits(top, limit, slot, score)) {
+            return;
+        }
+        if (top.size() == limit) {
+            top.poll();
+        }
+        top.add(new Hit(idsBySlot[slot], score, nameLengthsBySlot[slot]));
+    }
+
+    private static List<Long> ids(PriorityQueue<Hit> top) {
+        Long[] ids = new Long[top.size()];
+        for (int i = ids.length - 1; i >= 0; i--) {
+            ids[i] = top.poll().id();
+        }
+        return List.of(ids);
+    }
+
+    private static double containment(Set<String> queryGrams, Set<String> documentGrams) {
+        int shared = 0;
+        for (String gram : queryGrams) {
+            if (documentGrams.contains(gram)) {
+                shared++;
+            }
+        }
+        return (double) shared / queryGrams.size();
+    }
+
+    private void removeLocked(long id) {
+        int slot = slotById.remove(id);
+        if (slot == MISSING) {
+            return;
+        }
+        for (String gram : grams(names.get(slot), true)) {
+            removeSlot(postings, gram, slot);
+        }
+        removeSlot(slotsByCategory, categories.get(slot), slot);
+        names.set(slot, null);
+        categories.set(slot, null);
+        freeSlots.add(slot);
+    }
+
+    private static void removeSlot(Map<String, RoaringBitmap> bitmaps, String key, int slot) {
+        RoaringBitmap bitmap = bitmaps.get(key);
+        if (bitmap != null) {
+            bitmap.remove(slot);
+            if (bitmap.isEmpty()) {
+                bitmaps.remove(key);
+            }
+        }
+    }
+
+    private static Set<String> grams(String text, boolean padEnd) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (String word : text.split(" ")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            String padded = "$$" + word + (padEnd ? "$" : "");
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                grams.add(padded.substring(i, i + 3));
+            }
+        }
+        return grams;
+    }
+
+    private static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+    }
+
+    // Bumps each visited slot's count, remembering the slots as they reach required. Only
+    // candidates are ever counted, so clearing them leaves the buffer zeroed for the next search.
+    private static final class SharedCounter implements IntConsumer {
+
+        private final short[] shared;
+        private final int required;
+        private final RoaringBitmap candidates;
+        private int[] reached = new int[16];
+        private int size;
+
+        SharedCounter(short[] shared, int required, RoaringBitmap candidates) {
+            this.shared = shared;
+            this.required = required;
+            this.candidates = candidates;
+        }
+
+        @Override
+        public void accept(int slot) {
+            if (++shared[slot] == required) {
+                if (size == reached.length) {
+                    reached = Arrays.copyOf(reached, size * 2);
+                }
+                reached[size++] = slot;
+            }
+        }
+
+        // The reached slots bucketed by final count: tiers[c] shares exactly c
+        int[][] tiers(int maxCount) {
+            int[] tierSizes = new int[maxCount + 1];
+            for (int i = 0; i < size; i++) {
+                tierSizes[shared[reached[i]]]++;
+            }
+            int[][] tiers = new int[tierSizes.length][];
+            for (int count = 0; count < tiers.length; count++) {
+                tiers[count] = new int[tierSizes[count]];
+                tierSizes[count] = 0;
+            }
+            for (int i = 0; i < size; i++) {
+                int count = shared[reached[i]];
+                tiers[count][tierSizes[count]++] = reached[i];
+            }
+            return tiers;
+        }
+
+        boolean reached(int slot) {
+            return shared[slot] >= required;
+        }
+
+        void clear() {
+            candidates.forEach((IntConsumer) slot -> shared[slot] = 0);
+        }
+    }
+
+    private record Hit(long id, double score, int nameLength) {
+        // Lowest score first; among equal scores the longer (looser) name first, then the newer food,
+        // so ties rank the same whatever order the candidates are visited in
+        static final Comparator<Hit> WORST_FIRST = (a, b) -> compare(a.score(), a.nameLength(), a.id(), b);
+
+        // Negative when a hit with this score, name length and id ranks below the given one
+        static int compare(double score, int nameLength, long id, Hit hit) {
+            if (score != hit.score()) {
+                return Double.compare(score, hit.score());
+            }
+            if (nameLength != hit.nameLength()) {
+                return Integer.compare(hit.nameLength(), nameLength);
+            }
+            return Long.compare(hit.id(), id);
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package com.foodtracker.index;
+
+import com.foodtracker.dto.FoodDTO;
+import com.foodtracker.model.Food;
+import com.foodtracker.model.FoodStatus;
+import com.foodtracker.service.StatisticsDTO;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+// An immutable, column-oriented copy of the active inventory. Rows sit in id order in primitive
+// arrays, and a permutation gives (expiry day, id) order, so status lists, pages and statistics
+// are binary searches plus a slice. Because positions follow id order, (day, position) order is
+// the same as (day, id) order. Nothing is modified after construction: with() builds the next
+// snapshot in O(n + k log k) for k changes, so readers never lock.
+public final class InventorySnapshot {
+
+    public static final InventorySnapshot EMPTY = new InventorySnapshot(new long[0], new String[0], new int[0],
+            new String[0], new int[0], new int[0], new int[0], new long[0], new int[0], new String[0], Map.of());
+
+    // One active food as stored in the snapshot
+    public record Entry(long id, String name, int quantity, String unit, int expiryDay, int addedDay,
+                        String category, long version) {
+
+        public static Entry of(Food food) {
+            return new Entry(food.getId(), food.getName(), food.getQuantity(), food.getUnit(),
+                    food.getExpiryEpochDay(), (int) food.getAddedDate().toEpochDay(), food.getCategory(),
+                    food.getVersion() != null ? food.getVersion() : 0);
+        }
+
+        public static Entry of(FoodDTO food) {
+            return new Entry(food.getId(), food.getName(), food.getQuantity(), food.getUnit(),
+                    (int) food.getExpiryDate().toEpochDay(), (int) food.getAddedDate().toEpochDay(),
+                    food.getCategory(), food.getVersion() != null ? food.getVersion() : 0);
+        }
+    }
+
+    private final long[] ids;
+    private final String[] names;
+    private final int[] quantities;
+    private final String[] units;
+    private final int[] expiryDays;
+    private final int[] addedDays;
+    private final int[] categoryCodes;
+    private final long[] versions;
+    // Positions in (expiry day, id) order
+    private final int[] byExpiry;
+    // Category code -> category, and back
+    private final String[] categories;
+    private final Map<String, Integer> categoryCodesByName;
+
+    private InventorySnapshot(long[] ids, String[] names, int[] quantities, String[] units, int[] expiryDays,
+                              int[] addedDays, int[] categoryCodes, long[] versions, int[] byExpiry,
+                              String[] categories, Map<String, Integer> categoryCodesByName) {
+        this.ids = ids;
+        this.names = names;
+        this.quantities = quantities;
+        this.units = units;
+        this.expiryDays = expiryDays;
+        this.addedDays = addedDays;
+        this.categoryCodes = categoryCodes;
+        this.versions = versions;
+        this.byExpiry = byExpiry;
+        this.categories = categories;
+        this.categoryCodesByName = categoryCodesByName;
+    }
+
+    // A new snapshot with the puts added or replacing rows of the same id and the removed ids gone.
+    // Puts must have distinct ids.
+    public InventorySnapshot with(Collection<Entry> puts, Collection<Long> removes) {
+        Entry[] added = puts.toArray(new Entry[0]);
+        Arrays.sort(added, Comparator.comparingLong(Entry::id));
+        long[] changed = new long[added.length + removes.size()];
+        int changedCount = 0;
+        for (Entry entry : added) {
+            changed[changedCount++] = entry.id();
+        }
+        for (Long id : removes) {
+            changed[changedCount++] = id;
+        }
+        Arrays.sort(changed);
+
+        // Categories are copied only when a new one appears
+        String[] nextCategories = categories;
+        Map<String, Integer> nextCodes = categoryCodesByName;
+        for (Entry entry : added) {
+            if (!nextCodes.containsKey(entry.category())) {
+                if (nextCodes == categoryCodesByName) {
+                    nextCodes = new HashMap<>(categoryCodesByName);
+                }
+                nextCodes.put(entry.category(), nextCodes.size());
+            }
+        }
+        if (nextCodes != categoryCodesByName) {
+            nextCategories = new String[nextCodes.size()];
+            for (Map.Entry<String, Integer> category : nextCodes.entrySet()) {
+                nextCategories[category.getValue()] = category.getKey();
+            }
+            nextCodes = Map.copyOf(nextCodes);
+        }
+
+        int kept = 0;
+        for (int i = 0, c = 0; i < ids.length; i++) {
+            while (c < changed.length && changed[c] < ids[i]) {
+                c++;
+            }
+            if (c == changed.length || changed[c] != ids[i]) {
+                kept++;
+            }
+        }
+        int size = kept + added.length;
+        long[] nextIds = new long[size];
+        String[] nextNames = new String[size];
+        int[] nextQuantities = new int[size];
+        String[] nextUnits = new String[size];
+        int[] nextExpiryDays = new int[size];
+        int[] nextAddedDays = new int[size];
+        int[] nextCategoryCodes = new int[size];
+        long[] nextVersions = new long[size];
+
+        // Merge the unchanged rows with the added ones, both in id order, noting where each lands
+        int[] movedTo = new int[ids.length];
+        long[] addedKeys = new long[added.length];
+        int i = 0;
+        int j = 0;
+        int c = 0;
+        int out = 0;
+        while (i < ids.length || j < added.length) {
+            if (j == added.length || (i < ids.length && ids[i] < added[j].id())) {
+                while (c < changed.length && changed[c] < ids[i]) {
+                    c++;
+                }
+                if (c < changed.length && changed[c] == ids[i]) {
+                    movedTo[i++] = -1;
+                    continue;
+                }
+                nextIds[out] = ids[i];
+                nextNames[out] = names[i];
+                nextQuantities[out] = quantities[i];
+                nextUnits[out] = units[i];
+                nextExpiryDays[out] = expiryDays[i];
+                nextAddedDays[out] = addedDays[i];
+                nextCategoryCodes[out] = categoryCodes[i];
+                nextVersions[out] = versions[i];
+                movedTo[i++] = out++;
+            } else {
+                Entry entry = added[j];
+                nextIds[out] = entry.id();
+                nextNames[out] = entry.name();
+                nextQuantities[out] = entry.quantity();
+                nextUnits[out] = entry.unit();
+                nextExpiryDays[out] = entry.expiryDay();
+                nextAddedDays[out] = entry.addedDay();
+                nextCategoryCodes[out] = nextCodes.get(entry.category());
+                nextVersions[out] = entry.version();
+                // (day, position) packed so a plain sort gives expiry order
+                addedKeys[j++] = ((long) entry.expiryDay() << 32) | out++;
+            }
+        }
+
+        // Carry the old expiry order over to the new positions, then merge the added rows into it
+        Arrays.sort(addedKeys);
+        int[] nextByExpiry = new int[size];
+        int a = 0;
+        int b = 0;
+        out = 0;
+        while (out < size) {
+            while (a < byExpiry.length && movedTo[byExpiry[a]] < 0) {
+                a++;
+            }
+            int keptPosition = a < byExpiry.length ? movedTo[byExpiry[a]] : -1;
+            int addedPosition = b < addedKeys.length ? (int) addedKeys[b] : -1;
+            if (addedPosition < 0 || (keptPosition >= 0 && precedes(nextExpiryDays, keptPosition, addedPosition))) {
+                nextByExpiry[out++] = keptPosition;
+                a++;
+            } else {
+                nextByExpiry[out++] = addedPosition;
+                b++;
+            }
+        }
+
+        return new InventorySnapshot(nextIds, nextNames, nextQuantities, nextUnits, nextExpiryDays, nextAddedDays,
+                nextCategoryCodes, nextVersions, nextByExpiry, nextCategories, nextCodes);
+    }
+
+    private static boolean precedes(int[] days, int left, int right) {
+        return days[left] < days[right] || (days[left] == days[right] && left < right);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    // Stored version of the food, or -1 if it is not in the snapshot
+    public long versionOf(long id) {
+        int position = Arrays.binarySearch(ids, id);
+        return position >= 0 ? versions[position] : -1;
+    }
+
+    // All foods in id order
+    public List<FoodDTO> all(long today) {
+        List<FoodDTO> foods = new ArrayList<>(ids.length);
+        for (int position = 0; position < ids.length; position++) {
+            foods.add(dto(position, today));
+        }
+        return foods;
+    }
+
+    // Foods in one category, in id order
+    public List<FoodDTO> inCategory(String category, long today) {
+        List<FoodDTO> foods = new ArrayList<>();
+        Integer code = categoryCodesByName.get(category);
+        if (code == null) {
+            return foods;
+        }
+        for (int position = 0; position < ids.length; position++) {
+            if (categoryCodes[position] == code) {
+                foods.add(dto(position, today));
+            }
+        }
+        return foods;
+    }
+
+    // Foods expiring before the day, most recently expired first, then by id
+    public List<FoodDTO> expiringBefore(int day, long today) {
+        List<FoodDTO> foods = new ArrayList<>();
+        int end = firstExpiringOnOrAfter(day);
+        while (end > 0) {
+            int start = firstExpiringOnOrAfter(expiryDays[byExpiry[end - 1]]);
+            for (int i = start; i < end; i++) {
+                foods.add(dto(byExpiry[i], today));
+            }
+            end = start;
+        }
+        return foods;
+    }
+
+    // Foods expiring on days in [fromDay, toDay], in (expiry day, id) order
+    public List<FoodDTO> expiringBetween(int fromDay, int toDay, long today) {
+        int start = firstExpiringOnOrAfter(fromDay);
+        int end = toDay == Integer.MAX_VALUE ? byExpiry.length : firstExpiringOnOrAfter(toDay + 1);
+        List<FoodDTO> foods = new ArrayList<>(Math.max(0, end - start));
+        for (int i = start; i < end; i++) {
+            foods.add(dto(byExpiry[i], today));
+        }
+        return foods;
+    }
+
+    // Up to limit foods in (expiry day, id) order after the given position; null starts at the front
+    public List<FoodDTO> pageAfter(Integer afterDay, Long afterId, int limit, long today) {
+        int start = afterDay == null ? 0 : firstAfter(afterDay, afterId);
+        int end = Math.min(byExpiry.length, start + limit);
+        List<FoodDTO> foods = new ArrayList<>(Math.max(0, end - start));
+        for (int i = start; i < end; i++) {
+            foods.add(dto(byExpiry[i], today));
+        }
+        return foods;
+    }
+
+    public void forEachByExpiry(long today, Consumer<FoodDTO> consumer) {
+        for (int position : byExpiry) {
+            consumer.accept(dto(position, today));
+        }
+    }
+
+    public StatisticsDTO statistics(int today) {
+        int expired = firstExpiringOnOrAfter(today);
+        int notSoon = firstExpiringOnOrAfter(today + Food.EXPIRING_SOON_DAYS + 1);
+        int nextWeek = firstExpiringOnOrAfter(today + 7);
+        return StatisticsDTO.builder()
+                .totalItems(ids.length)
+                .expiredCount(expired)
+                .expiringSoonCount(notSoon - expired)
+                .goodCount(ids.length - notSoon)
+                .expiringThisWeekCount(nextWeek - expired)
+                .build();
+    }
+
+    // Index into byExpiry of the first food expiring on or after the day
+    private int firstExpiringOnOrAfter(int day) {
+        int low = 0;
+        int high = byExpiry.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (expiryDays[byExpiry[middle]] < day) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    // Index into byExpiry of the first food after (day, id)
+    private int firstAfter(int day, long id) {
+        int low = 0;
+        int high = byExpiry.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int position = byExpiry[middle];
+            if (expiryDays[position] < day || (expiryDays[position] == day && ids[position] <= id)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private FoodDTO dto(int position, long today) {
+        long daysUntilExpiry = expiryDays[position] - today;
+        return new FoodDTO(ids[position], names[position], quantities[position], units[position],
+                LocalDate.ofEpochDay(expiryDays[position]), LocalDate.ofEpochDay(addedDays[position]),
+                categories[categoryCodes[position]], FoodStatus.of(daysUntilExpiry), daysUntilExpiry,
+                versions[position]);
+    }
+}
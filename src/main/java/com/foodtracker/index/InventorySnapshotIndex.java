@@ -0,0 +1,92 @@
+package com.foodtracker.index;
+
+import com.foodtracker.dto.FoodDTO;
+import com.foodtracker.model.Food;
+import com.foodtracker.repository.FoodRepository;
+import com.foodtracker.service.FoodChangeEvent;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+// Holds the current InventorySnapshot of active foods. Readers just take the reference; each
+// committed change builds the next snapshot and swaps it in, so reads never wait on writers or
+// the database. Writers build one snapshot at a time.
+@Component
+@ConditionalOnProperty(name = "foodtracker.snapshot.enabled", havingValue = "true", matchIfMissing = true)
+@DependsOn("databaseInitializer")
+public class InventorySnapshotIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(InventorySnapshotIndex.class);
+
+    @Autowired
+    private FoodRepository foodRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final AtomicReference<InventorySnapshot> current = new AtomicReference<>(InventorySnapshot.EMPTY);
+
+    @PostConstruct
+    public void load() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        List<InventorySnapshot.Entry> entries = transaction.execute(status -> {
+            try (Stream<FoodDTO> rows = foodRepository.streamActive()) {
+                return rows.map(InventorySnapshot.Entry::of).toList();
+            }
+        });
+        synchronized (this) {
+            current.set(InventorySnapshot.EMPTY.with(entries, List.of()));
+        }
+        log.info("Inventory snapshot loaded with {} active foods", entries.size());
+    }
+
+    public InventorySnapshot current() {
+        return current.get();
+    }
+
+    @EventListener
+    public void onFoodChange(FoodChangeEvent event) {
+        apply(List.of(event));
+    }
+
+    // Fold a batch of changes into one new snapshot, e.g. a bulk import batch, instead of copying
+    // the arrays once per change. Changes the snapshot already holds (same or newer version) are
+    // skipped, so events applied here and later delivered one by one cost only a lookup.
+    public synchronized void apply(Collection<FoodChangeEvent> events) {
+        InventorySnapshot snapshot = current.get();
+        Map<Long, InventorySnapshot.Entry> puts = new LinkedHashMap<>();
+        List<Long> removes = new ArrayList<>();
+        for (FoodChangeEvent event : events) {
+            Food food = event.getFood();
+            if (event.isActive()) {
+                long version = food.getVersion() != null ? food.getVersion() : 0;
+                if (snapshot.versionOf(food.getId()) < version) {
+                    puts.put(food.getId(), InventorySnapshot.Entry.of(food));
+                }
+            } else {
+                puts.remove(food.getId());
+                if (snapshot.versionOf(food.getId()) >= 0) {
+                    removes.add(food.getId());
+                }
+            }
+        }
+        if (!puts.isEmpty() || !removes.isEmpty()) {
+            current.set(snapshot.with(puts.values(), removes));
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.foodtracker.index;
+
+import com.foodtracker.dto.RecipeDTO;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+// Inverted index from normalized ingredient tokens to recipes, built once per catalog.
+// A food matches an ingredient when the token set of one contains the other's, the token-level
+// equivalent of the old "either name contains the other" substring check.
+public class RecipeIngredientIndex {
+
+    private static final int[] EMPTY = new int[0];
+
+    private final List<RecipeDTO> recipes;
+    // Token -> ids of the distinct ingredients containing it, ascending
+    private final Map<String, int[]> ingredientsByToken;
+    // Ingredient id -> number of distinct tokens in its name
+    private final int[] ingredientTokenCounts;
+    // Ingredient id -> ids of the recipes using it, ascending
+    private final int[][] recipesByIngredient;
+    // Recipe id -> ids of its ingredients
+    private final int[][] ingredientsByRecipe;
+    // Recipe id -> its ingredient ids as a bitset, for cheap overlap checks against an inventory
+    private final BitSet[] ingredientBitsByRecipe;
+    private final String[] ingredientNames;
+
+    public RecipeIngredientIndex(List<RecipeDTO> recipes) {
+        this.recipes = List.copyOf(recipes);
+
+        Map<String, Integer> ingredientIds = new HashMap<>();
+        List<String> names = new ArrayList<>();
+        List<List<Integer>> recipeLists = new ArrayList<>();
+        Map<String, List<Integer>> tokenLists = new HashMap<>();
+        List<Integer> tokenCounts = new ArrayList<>();
+        ingredientsByRecipe = new int[this.recipes.size()][];
+
+        for (int recipeId = 0; recipeId < this.recipes.size(); recipeId++) {
+            Set<Integer> recipeIngredients = new LinkedHashSet<>();
+            for (String ingredient : this.recipes.get(recipeId).getIngredients()) {
+                Set<String> tokens = tokenize(ingredient);
+                if (tokens.isEmpty()) {
+                    continue;
+                }
+                String key = String.join(" ", tokens);
+                Integer ingredientId = ingredientIds.get(key);
+                if (ingredientId == null) {
+                    ingredientId = names.size();
+                    ingredientIds.put(key, ingredientId);
+                    names.add(ingredient);
+                    recipeLists.add(new ArrayList<>());
+                    tokenCounts.add(tokens.size());
+                    for (String token : tokens) {
+                        tokenLists.computeIfAbsent(token, t -> new ArrayList<>()).add(ingredientId);
+                    }
+                }
+                if (recipeIngredients.add(ingredientId)) {
+                    recipeLists.get(ingredientId).add(recipeId);
+                }
+            }
+            ingredientsByRecipe[recipeId] = toArray(recipeIngredients);
+        }
+
+        ingredientNames = names.toArray(new String[0]);
+        ingredientTokenCounts = tokenCounts.stream().mapToInt(Integer::intValue).toArray();
+        recipesByIngredient = new int[recipeLists.size()][];
+        for (int i = 0; i < recipeLists.size(); i++) {
+            recipesByIngredient[i] = toArray(recipeLists.get(i));
+        }
+        ingredientsByToken = new HashMap<>(tokenLists.size() * 2);
+        tokenLists.forEach((token, ids) -> ingredientsByToken.put(token, toArray(ids)));
+        ingredientBitsByRecipe = new BitSet[ingredientsByRecipe.length];
+        for (int recipeId = 0; recipeId < ingredientsByRecipe.length; recipeId++) {
+            BitSet bits = new BitSet(names.size());
+            for (int ingredientId : ingredientsByRecipe[recipeId]) {
+                bits.set(ingredientId);
+            }
+            ingredientBitsByRecipe[recipeId] = bits;
+        }
+    }
+
+    public List<RecipeDTO> getRecipes() {
+        return recipes;
+    }
+
+    public int recipeCount() {
+        return recipes.size();
+    }
+
+    public int ingredientCount() {
+        return ingredientNames.length;
+    }
+
+    public String getIngredientName(int ingredientId) {
+        return ingredientNames[ingredientId];
+    }
+
+    public int[] getIngredients(int recipeId) {
+        return ingredientsByRecipe[recipeId];
+    }
+
+    // Shared, precomputed bitset; callers must not modify it
+    public BitSet getIngredientBits(int recipeId) {
+        return ingredientBitsByRecipe[recipeId];
+    }
+
+    // Ids of the ingredients matching a single food name, ascending. The food's posting lists are
+    // merged and sorted, so each ingredient's run length is the number of food tokens it shares;
+    // the work and garbage scale with those lists rather than with the whole catalog.
+    public int[] matchIngredients(String foodName) {
+        Set<String> tokens = tokenize(foodName);
+        if (tokens.isEmpty()) {
+            return EMPTY;
+        }
+        int[][] postings = new int[tokens.size()][];
+        int total = 0;
+        int i = 0;
+        for (String token : tokens) {
+            postings[i] = ingredientsByToken.getOrDefault(token, EMPTY);
+            total += postings[i++].length;
+        }
+        int[] hits = new int[total];
+        int size = 0;
+        for (int[] posting : postings) {
+            System.arraycopy(posting, 0, hits, size, posting.length);
+            size += posting.length;
+        }
+        Arrays.sort(hits);
+        int matched = 0;
+        for (int from = 0; from < total; ) {
+            int ingredientId = hits[from];
+            int to = from + 1;
+            while (to < total && hits[to] == ingredientId) {
+                to++;
+            }
+            int shared = to - from;
+            // Ingredient tokens all in the food, or food tokens all in the ingredient
+            if (shared == ingredientTokenCounts[ingredientId] || shared == tokens.size()) {
+                hits[matched++] = ingredientId;
+            }
+            from = to;
+        }
+        return Arrays.copyOf(hits, matched);
+    }
+
+    // Number of matching (ingredient, food) pairs per recipe id
+    public int[] matchCounts(Collection<String> foodNames) {
+        int[] counts = new int[recipes.size()];
+        for (String foodName : foodNames) {
+            for (int ingredientId : matchIngredients(foodName)) {
+                for (int recipeId : recipesByIngredient[ingredientId]) {
+                    counts[recipeId]++;
+                }
+            }
+        }
+        return counts;
+    }
+
+    // Recipes with at least one ingredient matching any of the foods, in catalog order
+    public List<RecipeDTO> match(Collection<String> foodNames) {
+        int[] counts = matchCounts(foodNames);
+        List<RecipeDTO> matches = new ArrayList<>();
+        for (int recipeId = 0; recipeId < counts.length; recipeId++) {
+            if (counts[recipeId] > 0) {
+                matches.add(recipes.get(recipeId));
+            }
+        }
+        return matches;
+    }
+
+    // Lower-case words with a naive plural strip, so "Eggs" and "egg" share a token
+    public static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                tokens.add(singular(word));
+            }
+        }
+        return tokens;
+    }
+
+    private static String singular(String word) {
+        if (word.length() > 4 && word.endsWith("ies")) {
+            return word.substring(0, word.length() - 3) + "y";
+        }
+        if (word.length() > 4 && word.endsWith("oes")) {
+            return word.substring(0, word.length() - 2);
+        }
+        if (word.length() > 3 && word.endsWith("s") && !word.endsWith("ss")) {
+            return word.substring(0, word.length() - 1);
+        }
+        return word;
+    }
+
+    private static int[] toArray(Collection<Integer> values) {
+        return values.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
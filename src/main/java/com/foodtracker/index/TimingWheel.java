@@ -0,0 +1,189 @@
+package com.foodtracker.index;
+
+import java.util.Arrays;
+
+// Hierarchical timing wheel of long keys, each with one deadline in whole ticks and an int payload.
+// Level L has 64 slots spanning 64^L ticks each. A timer sits at the lowest level on which its
+// deadline and the current tick share the same slot run, and drops to a lower level when the wheel
+// reaches its slot, so schedule, cancel and expiry are O(1) and a timer moves at most once per
+// level. Timers live in parallel primitive arrays threaded into per-slot lists, with no object per
+// timer. Not thread-safe.
+public class TimingWheel {
+
+    @FunctionalInterface
+    public interface Expiry {
+        void expired(long key, long deadline, int payload);
+    }
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int LEVELS = 6;
+    // Deadlines beyond the top level, re-placed each time the top level wraps
+    private static final int OVERFLOW = LEVELS * SLOTS;
+    private static final int NONE = -1;
+
+    private final int[] heads = new int[OVERFLOW + 1];
+    private final LongIntHashMap timerByKey = new LongIntHashMap(NONE);
+    private long[] keys;
+    private long[] deadlines;
+    private int[] payloads;
+    private int[] next;
+    private int[] previous;
+    private int[] slots;
+    // Released timers, linked through next
+    private int free = NONE;
+    private int allocated;
+    private long currentTick;
+
+    public TimingWheel(long startTick) {
+        Arrays.fill(heads, NONE);
+        allocate(16);
+        currentTick = startTick;
+    }
+
+    public long currentTick() {
+        return currentTick;
+    }
+
+    public int size() {
+        return timerByKey.size();
+    }
+
+    // Set the key's deadline, replacing any earlier one. False, with nothing scheduled, if the
+    // deadline is not after the current tick.
+    public boolean schedule(long key, long deadline, int payload) {
+        cancel(key);
+        if (deadline <= currentTick) {
+            return false;
+        }
+        int timer = take();
+        keys[timer] = key;
+        deadlines[timer] = deadline;
+        payloads[timer] = payload;
+        link(timer, slotFor(deadline));
+        timerByKey.put(key, timer);
+        return true;
+    }
+
+    public boolean cancel(long key) {
+        int timer = timerByKey.remove(key);
+        if (timer == NONE) {
+            return false;
+        }
+        unlink(timer);
+        release(timer);
+        return true;
+    }
+
+    // Payload of the key's pending timer, or missing if it has none
+    public int payloadOf(long key, int missing) {
+        int timer = timerByKey.get(key);
+        return timer != NONE ? payloads[timer] : missing;
+    }
+
+    // Move to the tick, expiring timers in deadline order. The callback may schedule and cancel
+    // timers; anything it schedules at or before the target expires in this same call.
+    public void advanceTo(long tick, Expiry expiry) {
+        while (currentTick < tick) {
+            if (timerByKey.size() == 0) {
+                currentTick = tick;
+                return;
+            }
+            currentTick++;
+            cascade();
+            int slot = (int) (currentTick & (SLOTS - 1));
+            int timer;
+            while ((timer = heads[slot]) != NONE) {
+                long key = keys[timer];
+                long deadline = deadlines[timer];
+                int payload = payloads[timer];
+                unlink(timer);
+                timerByKey.remove(key);
+                release(timer);
+                expiry.expired(key, deadline, payload);
+            }
+        }
+    }
+
+    // Bring down every timer whose higher-level slot the wheel has just reached, highest level
+    // first, so timers dropped from one level are picked up by the next
+    private void cascade() {
+        if ((currentTick & ((1L << (SLOT_BITS * LEVELS)) - 1)) == 0) {
+            replace(OVERFLOW);
+        }
+        for (int level = LEVELS - 1; level > 0; level--) {
+            int shift = SLOT_BITS * level;
+            if ((currentTick & ((1L << shift) - 1)) == 0) {
+                replace(level * SLOTS + (int) ((currentTick >>> shift) & (SLOTS - 1)));
+            }
+        }
+    }
+
+    private void replace(int slot) {
+        int timer = heads[slot];
+        heads[slot] = NONE;
+        while (timer != NONE) {
+            int following = next[timer];
+            link(timer, slotFor(deadlines[timer]));
+            timer = following;
+        }
+    }
+
+    private int slotFor(long deadline) {
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = SLOT_BITS * (level + 1);
+            if ((deadline >>> shift) == (currentTick >>> shift)) {
+                return level * SLOTS + (int) ((deadline >>> (SLOT_BITS * level)) & (SLOTS - 1));
+            }
+        }
+        return OVERFLOW;
+    }
+
+    private void link(int timer, int slot) {
+        int head = heads[slot];
+        next[timer] = head;
+        previous[timer] = NONE;
+        if (head != NONE) {
+            previous[head] = timer;
+        }
+        heads[slot] = timer;
+        slots[timer] = slot;
+    }
+
+    private void unlink(int timer) {
+        if (previous[timer] != NONE) {
+            next[previous[timer]] = next[timer];
+        } else {
+            heads[slots[timer]] = next[timer];
+        }
+        if (next[timer] != NONE) {
+            previous[next[timer]] = previous[timer];
+        }
+    }
+
+    private int take() {
+        if (free != NONE) {
+            int timer = free;
+            free = next[timer];
+            return timer;
+        }
+        if (allocated == keys.length) {
+            allocate(keys.length * 2);
+        }
+        return allocated++;
+    }
+
+    private void release(int timer) {
+        next[timer] = free;
+        free = timer;
+    }
+
+    private void allocate(int capacity) {
+        keys = keys == null ? new long[capacity] : Arrays.copyOf(keys, capacity);
+        deadlines = deadlines == null ? new long[capacity] : Arrays.copyOf(deadlines, capacity);
+        payloads = payloads == null ? new int[capacity] : Arrays.copyOf(payloads, capacity);
+        next = next == null ? new int[capacity] : Arrays.copyOf(next, capacity);
+        previous = previous == null ? new int[capacity] : Arrays.copyOf(previous, capacity);
+        slots = slots == null ? new int[capacity] : Arrays.copyOf(slots, capacity);
+    }
+}
@@ -0,0 +1,155 @@
+package com.foodtracker.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+// Donated food moved out of the foods table by FoodArchiver, so hot queries only scan active
+// inventory. Keeps the id it had in foods, and the same lower-cased keys so /query filters and
+// sorts on the archive use indexes too.
+@Entity
+@Table(name = "donated_foods", indexes = {
+        @Index(name = "idx_donated_foods_expiry_date", columnList = "expiry_date, id"),
+        @Index(name = "idx_donated_foods_name_key", columnList = "name_key, id"),
+        @Index(name = "idx_donated_foods_category_key", columnList = "category_key, id")
+})
+public class DonatedFood {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private String name;
+
+    // Made NOT NULL by DatabaseInitializer once older rows are backfilled, as is category_key
+    @Column(name = "name_key")
+    private String nameKey;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(nullable = false)
+    private String unit;
+
+    @Column(nullable = false)
+    private LocalDate expiryDate;
+
+    @Column(nullable = false)
+    private LocalDate addedDate;
+
+    @Column(nullable = false)
+    private String category;
+
+    @Column(name = "category_key")
+    private String categoryKey;
+
+    @Column
+    private LocalDate donatedDate;
+
+    // Constructor - No Args
+    public DonatedFood() {
+    }
+
+    // Constructor - All Args
+    public DonatedFood(Long id, String name, Integer quantity, String unit, LocalDate expiryDate,
+                       LocalDate addedDate, String category, LocalDate donatedDate) {
+        this.id = id;
+        this.name = name;
+        this.nameKey = Food.searchKey(name);
+        this.quantity = quantity;
+        this.unit = unit;
+        this.expiryDate = expiryDate;
+        this.addedDate = addedDate;
+        this.category = category;
+        this.categoryKey = Food.searchKey(category);
+        this.donatedDate = donatedDate;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+        this.nameKey = Food.searchKey(name);
+    }
+
+    public String getNameKey() {
+        return nameKey;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public String getUnit() {
+        return unit;
+    }
+
+    public void setUnit(String unit) {
+        this.unit = unit;
+    }
+
+    public LocalDate getExpiryDate() {
+        return expiryDate;
+    }
+
+    public void setExpiryDate(LocalDate expiryDate) {
+        this.expiryDate = expiryDate;
+    }
+
+    public LocalDate getAddedDate() {
+        return addedDate;
+    }
+
+    public void setAddedDate(LocalDate addedDate) {
+        this.addedDate = addedDate;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+        this.categoryKey = Food.searchKey(category);
+    }
+
+    public String getCategoryKey() {
+        return categoryKey;
+    }
+
+    public LocalDate getDonatedDate() {
+        return donatedDate;
+    }
+
+    public void setDonatedDate(LocalDate donatedDate) {
+        this.donatedDate = donatedDate;
+    }
+
+    @Override
+    public String toString() {
+        return "DonatedFood{" +
+                "id=" + id +
+                ", name='" + name + '\'' +
+                ", quantity=" + quantity +
+                ", unit='" + unit + '\'' +
+                ", expiryDate=" + expiryDate +
+                ", addedDate=" + addedDate +
+                ", category='" + category + '\'' +
+                ", donatedDate=" + donatedDate +
+                '}';
+    }
+}
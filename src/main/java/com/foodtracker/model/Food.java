@@ -2,18 +2,34 @@ package com.foodtracker.model;
 
 import jakarta.persistence.*;
 import java.time.LocalDate;
-import java.time.temporal.ChronoUnit;
+import java.util.Locale;
 
 @Entity
-@Table(name = "foods")
+@Table(name = "foods", indexes = {
+        @Index(name = "idx_foods_donated_expiry_day", columnList = "donated, expiry_epoch_day"),
+        @Index(name = "idx_foods_donated_name_key", columnList = "donated, name_key"),
+        @Index(name = "idx_foods_donated_category_key", columnList = "donated, category_key")
+})
 public class Food {
+    // Days ahead of expiry at which an item counts as expiring soon
+    public static final int EXPIRING_SOON_DAYS = 3;
+    
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // Pooled sequence so Hibernate can hand out ids in memory and batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "foods_seq")
+    @SequenceGenerator(name = "foods_seq", sequenceName = "foods_seq", allocationSize = Food.ID_ALLOCATION_SIZE)
     private Long id;
     
     @Column(nullable = false)
     private String name;
     
+    // Lower-cased name kept in step by setName, so case-insensitive prefix filters and name
+    // sorts can use an index. Made NOT NULL by DatabaseInitializer once older rows are backfilled.
+    @Column(name = "name_key")
+    private String nameKey;
+    
     @Column(nullable = false)
     private Integer quantity;
     
@@ -23,18 +39,33 @@ public class Food {
     @Column(nullable = false)
     private LocalDate expiryDate;
     
+    // expiryDate as days since 1970-01-01, kept in step by setExpiryDate so range filters and
+    // status classification are integer comparisons both here and in SQL. Made NOT NULL by
+    // DatabaseInitializer once older rows are backfilled.
+    @Column(name = "expiry_epoch_day")
+    private Integer expiryEpochDay;
+    
     @Column(nullable = false)
     private LocalDate addedDate;
     
     @Column(nullable = false)
     private String category;
     
+    // Lower-cased category kept in step by setCategory, for case-insensitive category filters and
+    // sorts on an index. Made NOT NULL by DatabaseInitializer once older rows are backfilled.
+    @Column(name = "category_key")
+    private String categoryKey;
+    
     @Column(nullable = false)
     private Boolean donated = false;
     
     @Column
     private LocalDate donatedDate;
     
+    // Optimistic lock for full updates; DatabaseInitializer backfills rows that predate it
+    @Version
+    private Long version;
+    
     // Constructor - No Args
     public Food() {
     }
@@ -44,15 +75,25 @@ public class Food {
                 LocalDate addedDate, String category, Boolean donated, LocalDate donatedDate) {
         this.id = id;
         this.name = name;
+        this.nameKey = searchKey(name);
         this.quantity = quantity;
         this.unit = unit;
         this.expiryDate = expiryDate;
+        this.expiryEpochDay = toEpochDay(expiryDate);
         this.addedDate = addedDate;
         this.category = category;
+        this.categoryKey = searchKey(category);
         this.donated = donated;
         this.donatedDate = donatedDate;
     }
 
+    // Detached copy of the current field values
+    public Food copy() {
+        Food copy = new Food(id, name, quantity, unit, expiryDate, addedDate, category, donated, donatedDate);
+        copy.version = version;
+        return copy;
+    }
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -68,6 +109,11 @@ public class Food {
 
     public void setName(String name) {
         this.name = name;
+        this.nameKey = searchKey(name);
+    }
+
+    public String getNameKey() {
+        return nameKey;
     }
 
     public Integer getQuantity() {
@@ -92,6 +138,11 @@ public class Food {
 
     public void setExpiryDate(LocalDate expiryDate) {
         this.expiryDate = expiryDate;
+        this.expiryEpochDay = toEpochDay(expiryDate);
+    }
+
+    public Integer getExpiryEpochDay() {
+        return expiryEpochDay;
     }
 
     public LocalDate getAddedDate() {
@@ -108,6 +159,11 @@ public class Food {
 
     public void setCategory(String category) {
         this.category = category;
+        this.categoryKey = searchKey(category);
+    }
+
+    public String getCategoryKey() {
+        return categoryKey;
     }
 
     public Boolean getDonated() {
@@ -125,38 +181,48 @@ public class Food {
     public void setDonatedDate(LocalDate donatedDate) {
         this.donatedDate = donatedDate;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
+    // The lower-cased form stored in name_key and category_key; queries compare against the same
+    public static String searchKey(String text) {
+        return text != null ? text.toLowerCase(Locale.ROOT) : null;
+    }
+
+    // Shared by setExpiryDate and the constructor, which calls nothing overridable
+
+    private static Integer toEpochDay(LocalDate date) {
+        return date != null ? (int) date.toEpochDay() : null;
+    }
     
     // Calculate days until expiry
     @Transient
     public long getDaysUntilExpiry() {
-        return ChronoUnit.DAYS.between(LocalDate.now(), expiryDate);
+        return expiryEpochDay - LocalDate.now().toEpochDay();
     }
     
     // Check if expired
     @Transient
     public boolean isExpired() {
-        return getDaysUntilExpiry() < 0;
+        return getStatus() == FoodStatus.EXPIRED;
     }
     
     // Check if expiring soon (within 3 days)
     @Transient
     public boolean isExpiringSoon() {
-        long daysLeft = getDaysUntilExpiry();
-        return daysLeft >= 0 && daysLeft <= 3;
+        return getStatus() == FoodStatus.EXPIRING_SOON;
     }
     
     // Get status
     @Transient
-    public String getStatus() {
-        long daysLeft = getDaysUntilExpiry();
-        
-        if (daysLeft < 0) {
-            return "EXPIRED";
-        } else if (daysLeft <= 3) {
-            return "EXPIRING_SOON";
-        } else {
-            return "GOOD";
-        }
+    public FoodStatus getStatus() {
+        return FoodStatus.of(getDaysUntilExpiry());
     }
 
     @Override
@@ -0,0 +1,87 @@
+package com.foodtracker.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+// One entry of the inventory change log; ids double as the sync version handed to clients
+@Entity
+@Table(name = "food_changes")
+public class FoodChange {
+
+    public enum Type {
+        ADDED,
+        UPDATED,
+        DELETED,
+        DONATED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "food_changes_seq")
+    @SequenceGenerator(name = "food_changes_seq", sequenceName = "food_changes_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long foodId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Type type;
+
+    @Column(nullable = false)
+    private Instant changedAt;
+
+    // Constructor - No Args
+    public FoodChange() {
+    }
+
+    // Constructor - All Args
+    public FoodChange(Long id, Long foodId, Type type, Instant changedAt) {
+        this.id = id;
+        this.foodId = foodId;
+        this.type = type;
+        this.changedAt = changedAt;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getFoodId() {
+        return foodId;
+    }
+
+    public void setFoodId(Long foodId) {
+        this.foodId = foodId;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public Instant getChangedAt() {
+        return changedAt;
+    }
+
+    public void setChangedAt(Instant changedAt) {
+        this.changedAt = changedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "FoodChange{" +
+                "id=" + id +
+                ", foodId=" + foodId +
+                ", type=" + type +
+                ", changedAt=" + changedAt +
+                '}';
+    }
+}
@@ -0,0 +1,18 @@
+package com.foodtracker.model;
+
+public enum FoodStatus {
+    EXPIRED,
+    EXPIRING_SOON,
+    GOOD;
+
+    // Classify by whole days left until expiry (negative once expired)
+    public static FoodStatus of(long daysUntilExpiry) {
+        if (daysUntilExpiry < 0) {
+            return EXPIRED;
+        } else if (daysUntilExpiry <= Food.EXPIRING_SOON_DAYS) {
+            return EXPIRING_SOON;
+        } else {
+            return GOOD;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.foodtracker.repository;
+
+import com.foodtracker.dto.FoodDTO;
+import com.foodtracker.model.DonatedFood;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+@Repository
+public interface DonatedFoodRepository extends JpaRepository<DonatedFood, Long> {
+    String SELECT_DTO = "SELECT new com.foodtracker.dto.FoodDTO(d.id, d.name, d.quantity, d.unit, " +
+                        "d.expiryDate, d.addedDate, d.category, CAST(NULL AS Long)) FROM DonatedFood d ";
+
+    // All archived donations in id order
+    @Query(SELECT_DTO + "ORDER BY d.id")
+    List<FoodDTO> findAllDTOs();
+
+    @Query(SELECT_DTO + "WHERE d.id = :id")
+    FoodDTO findDTOById(@Param("id") Long id);
+
+    // Filterable attributes of every archived donation, for the facet index
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT d.id AS id, d.category AS category, d.unit AS unit, d.expiryDate AS expiryDate, " +
+           "true AS donated FROM DonatedFood d")
+    Stream<FoodFacetView> streamFacets();
+
+    // Copy the given donated foods into the archive in one statement
+    @Modifying
+    @Query("INSERT INTO DonatedFood (id, name, nameKey, quantity, unit, expiryDate, addedDate, category, " +
+           "categoryKey, donatedDate) " +
+           "SELECT f.id, f.name, f.nameKey, f.quantity, f.unit, f.expiryDate, f.addedDate, f.category, " +
+           "f.categoryKey, f.donatedDate " +
+           "FROM Food f WHERE f.donated = true AND f.id IN :ids")
+    int copyDonatedFoods(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,27 @@
+package com.foodtracker.repository;
+
+import com.foodtracker.model.FoodChange;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface FoodChangeRepository extends JpaRepository<FoodChange, Long> {
+    List<FoodChange> findByIdGreaterThanOrderById(Long since, Limit limit);
+
+    @Query("SELECT MIN(c.id) FROM FoodChange c")
+    Long findMinId();
+
+    @Query("SELECT MAX(c.id) FROM FoodChange c")
+    Long findMaxId();
+
+    // Drop entries older than the cutoff, always keeping the newest so the horizon stays known
+    @Modifying
+    @Query("DELETE FROM FoodChange c WHERE c.changedAt < :cutoff AND c.id < :maxId")
+    int deleteOlderThan(@Param("cutoff") Instant cutoff, @Param("maxId") Long maxId);
+}
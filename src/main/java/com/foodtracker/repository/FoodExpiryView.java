@@ -0,0 +1,7 @@
+package com.foodtracker.repository;
+
+// Narrow projection used to build in-memory indexes without hydrating entities
+public interface FoodExpiryView {
+    Long getId();
+    Integer getExpiryEpochDay();
+}
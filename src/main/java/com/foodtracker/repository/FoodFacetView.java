@@ -0,0 +1,12 @@
+package com.foodtracker.repository;
+
+import java.time.LocalDate;
+
+// The filterable attributes of a food, active, donated or archived, for the facet index
+public interface FoodFacetView {
+    Long getId();
+    String getCategory();
+    String getUnit();
+    LocalDate getExpiryDate();
+    Boolean getDonated();
+}
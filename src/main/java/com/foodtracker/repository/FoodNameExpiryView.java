@@ -0,0 +1,7 @@
+package com.foodtracker.repository;
+
+// Distinct active food name with its earliest expiry day
+public interface FoodNameExpiryView {
+    String getName();
+    Integer getExpiryEpochDay();
+}
@@ -1,12 +1,123 @@
 package com.foodtracker.repository;
 
+import com.foodtracker.dto.FoodDTO;
 import com.foodtracker.model.Food;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface FoodRepository extends JpaRepository<Food, Long> {
-    List<Food> findByNameContainingIgnoreCase(String name);
-    List<Food> findByCategory(String category);
+    // Constructor projection straight into FoodDTO: no managed entities, no dirty-checking snapshots.
+    // Status and daysUntilExpiry are left for the service to fill in against a single "today".
+    String SELECT_DTO = "SELECT new com.foodtracker.dto.FoodDTO(f.id, f.name, f.quantity, f.unit, " +
+                        "f.expiryDate, f.addedDate, f.category, f.version) FROM Food f ";
+
+    // All active foods in id order
+    @Query(SELECT_DTO + "WHERE f.donated = false ORDER BY f.id")
+    List<FoodDTO> findActive();
+
+    // All donated foods in id order
+    @Query(SELECT_DTO + "WHERE f.donated = true ORDER BY f.id")
+    List<FoodDTO> findDonated();
+
+    // Take amount off an active food's quantity in one statement, only if that much is left.
+    // Bumps the version so a full update based on the old quantity is rejected.
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Food f SET f.quantity = f.quantity - :amount, f.version = f.version + 1 " +
+           "WHERE f.id = :id AND f.donated = false AND f.quantity >= :amount")
+    int consume(@Param("id") Long id, @Param("amount") int amount);
+
+    // Ids of donated foods still waiting to be archived, oldest first
+    @Query("SELECT f.id FROM Food f WHERE f.donated = true ORDER BY f.id")
+    List<Long> findDonatedIds(Limit limit);
+
+    // Remove donated foods once FoodArchiver has copied them to donated_foods
+    @Modifying
+    @Query("DELETE FROM Food f WHERE f.donated = true AND f.id IN :ids")
+    int deleteDonatedByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Active foods in one category, exact case, in id order; categoryKey is Food.searchKey(category)
+    // and lets the lookup use the category index
+    @Query(SELECT_DTO + "WHERE f.donated = false AND f.categoryKey = :categoryKey AND f.category = :category " +
+           "ORDER BY f.id")
+    List<FoodDTO> findActiveByCategory(@Param("categoryKey") String categoryKey, @Param("category") String category);
+
+    // The active foods among the given ids; donated or deleted ids are simply absent
+    @Query(SELECT_DTO + "WHERE f.donated = false AND f.id IN :ids")
+    List<FoodDTO> findActiveByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Active foods that expired before the given epoch day, most recently expired first
+    @Query(SELECT_DTO + "WHERE f.donated = false AND f.expiryEpochDay < :today " +
+           "ORDER BY f.expiryEpochDay DESC, f.id")
+    List<FoodDTO> findActiveExpiredBefore(@Param("today") int today);
+
+    // Active foods expiring within epoch days [from, to], soonest first
+    @Query(SELECT_DTO + "WHERE f.donated = false AND f.expiryEpochDay BETWEEN :from AND :to " +
+           "ORDER BY f.expiryEpochDay, f.id")
+    List<FoodDTO> findActiveExpiringBetween(@Param("from") int from, @Param("to") int to);
+
+    // Active foods expiring after the given epoch day, soonest first
+    @Query(SELECT_DTO + "WHERE f.donated = false AND f.expiryEpochDay > :after " +
+           "ORDER BY f.expiryEpochDay, f.id")
+    List<FoodDTO> findActiveExpiringAfter(@Param("after") int after);
+
+    // Status counts for all active foods in one grouped aggregate; all bounds are epoch days
+    @Query("SELECT COUNT(f) AS total, " +
+           "SUM(CASE WHEN f.expiryEpochDay < :today THEN 1 ELSE 0 END) AS expired, " +
+           "SUM(CASE WHEN f.expiryEpochDay BETWEEN :today AND :soonLimit THEN 1 ELSE 0 END) AS expiringSoon, " +
+           "SUM(CASE WHEN f.expiryEpochDay > :soonLimit THEN 1 ELSE 0 END) AS good, " +
+           "SUM(CASE WHEN f.expiryEpochDay >= :today AND f.expiryEpochDay < :nextWeek THEN 1 ELSE 0 END) AS expiringThisWeek " +
+           "FROM Food f WHERE f.donated = false")
+    FoodStatusCounts countActiveByStatus(@Param("today") int today,
+                                         @Param("soonLimit") int soonLimit,
+                                         @Param("nextWeek") int nextWeek);
+
+    // First page of active foods in (expiry day, id) keyset order
+    @Query(SELECT_DTO + "WHERE f.donated = false ORDER BY f.expiryEpochDay, f.id")
+    List<FoodDTO> findActivePage(Limit limit);
+
+    // Next page of active foods strictly after the (expiry day, id) cursor
+    @Query(SELECT_DTO + "WHERE f.donated = false AND " +
+           "(f.expiryEpochDay > :afterDay OR (f.expiryEpochDay = :afterDay AND f.id > :afterId)) " +
+           "ORDER BY f.expiryEpochDay, f.id")
+    List<FoodDTO> findActivePageAfter(@Param("afterDay") int afterDay,
+                                      @Param("afterId") Long afterId,
+                                      Limit limit);
+
+    // Cursor over all active foods; must be consumed inside a transaction and closed
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_DTO + "WHERE f.donated = false ORDER BY f.expiryEpochDay, f.id")
+    Stream<FoodDTO> streamActive();
+
+    // Ids and expiry days of all active foods, for rebuilding in-memory indexes
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT f.id AS id, f.expiryEpochDay AS expiryEpochDay FROM Food f WHERE f.donated = false")
+    Stream<FoodExpiryView> streamActiveExpiry();
+
+    // Earliest expiry day per distinct name among active foods that have not expired yet
+    @Query("SELECT f.name AS name, MIN(f.expiryEpochDay) AS expiryEpochDay FROM Food f " +
+           "WHERE f.donated = false AND f.expiryEpochDay >= :today GROUP BY f.name")
+    List<FoodNameExpiryView> findUsableNamesWithEarliestExpiry(@Param("today") int today);
+
+    // Filterable attributes of every food still in this table, donated or not, for the facet index
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT f.id AS id, f.category AS category, f.unit AS unit, f.expiryDate AS expiryDate, " +
+           "f.donated AS donated FROM Food f")
+    Stream<FoodFacetView> streamFacets();
+
+    // Ids, names and categories of all active foods, for rebuilding the search index
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT f.id AS id, f.name AS name, f.category AS category FROM Food f WHERE f.donated = false")
+    Stream<FoodSearchView> streamActiveSearchable();
 }
@@ -0,0 +1,8 @@
+package com.foodtracker.repository;
+
+// Narrow projection of the searchable text of a food
+public interface FoodSearchView {
+    Long getId();
+    String getName();
+    String getCategory();
+}
@@ -0,0 +1,10 @@
+package com.foodtracker.repository;
+
+// Projection for the single-pass statistics aggregate; sums are null on an empty table
+public interface FoodStatusCounts {
+    Long getTotal();
+    Long getExpired();
+    Long getExpiringSoon();
+    Long getGood();
+    Long getExpiringThisWeek();
+}
@@ -0,0 +1,176 @@
+package com.foodtracker.service;
+
+import com.foodtracker.dto.ExpiryAlertDTO;
+import com.foodtracker.index.TimingWheel;
+import com.foodtracker.model.Food;
+import com.foodtracker.model.FoodStatus;
+import com.foodtracker.repository.FoodExpiryView;
+import com.foodtracker.repository.FoodRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Alerts sinks when an active food crosses into EXPIRING_SOON and again when it crosses into
+// EXPIRED. Each food holds one timer in a TimingWheel, for its next crossing, keyed by id and
+// carrying the expiry day; when the first fires, the second is scheduled. Crossings already behind
+// when a food is loaded, added or changed are not alerted, since the food never made them while
+// tracked here.
+@Component
+@ConditionalOnProperty(name = "foodtracker.alerts.enabled", havingValue = "true", matchIfMissing = true)
+@DependsOn("databaseInitializer")
+public class ExpiryAlertScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpiryAlertScheduler.class);
+    private static final int UNSCHEDULED = Integer.MIN_VALUE;
+
+    @Autowired
+    private FoodRepository foodRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired(required = false)
+    private List<ExpiryAlertSink> sinks = List.of();
+
+    @Value("${foodtracker.alerts.tick:PT1S}")
+    private Duration tick;
+
+    @Value("${foodtracker.alerts.batch-size:1000}")
+    private int batchSize;
+
+    private final ZoneId zone = ZoneId.systemDefault();
+    private TimingWheel wheel;
+    private Counter expiringSoonAlerts;
+    private Counter expiredAlerts;
+
+    @PostConstruct
+    public void load() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.executeWithoutResult(status -> {
+            synchronized (this) {
+                wheel = new TimingWheel(currentTick());
+                try (Stream<FoodExpiryView> rows = foodRepository.streamActiveExpiry()) {
+                    rows.forEach(row -> register(row.getId(), row.getExpiryEpochDay()));
+                }
+            }
+        });
+        if (expiringSoonAlerts == null) {
+            registerMeters();
+        }
+        log.info("Expiry alerts scheduled for {} active foods", scheduled());
+    }
+
+    private void registerMeters() {
+        expiringSoonAlerts = alertCounter(FoodStatus.EXPIRING_SOON);
+        expiredAlerts = alertCounter(FoodStatus.EXPIRED);
+        Gauge.builder("foodtracker.alerts.scheduled", this, ExpiryAlertScheduler::scheduled)
+                .description("Active foods with an expiry alert still to come")
+                .register(meterRegistry);
+    }
+
+    private Counter alertCounter(FoodStatus status) {
+        return Counter.builder("foodtracker.alerts.fired")
+                .tag("status", status.name())
+                .description("Expiry alerts delivered to sinks")
+                .register(meterRegistry);
+    }
+
+    public synchronized int scheduled() {
+        return wheel.size();
+    }
+
+    @EventListener
+    public synchronized void onFoodChange(FoodChangeEvent event) {
+        Food food = event.getFood();
+        if (!event.isActive()) {
+            wheel.cancel(food.getId());
+        } else if (wheel.payloadOf(food.getId(), UNSCHEDULED) != food.getExpiryEpochDay()) {
+            // Consumes and edits that keep the expiry date leave the pending alert as it is
+            register(food.getId(), food.getExpiryEpochDay());
+        }
+    }
+
+    // Fire every crossing that is now due, then hand the alerts to the sinks outside the lock
+    @Scheduled(fixedDelayString = "${foodtracker.alerts.tick:PT1S}")
+    public void advance() {
+        List<ExpiryAlertDTO> alerts = new ArrayList<>();
+        synchronized (this) {
+            wheel.advanceTo(currentTick(), (id, deadline, expiryDay) -> {
+                if (deadline == deadlineTick(expiringSoonAt(expiryDay))) {
+                    alerts.add(alert(id, FoodStatus.EXPIRING_SOON, expiryDay, expiringSoonAt(expiryDay)));
+                    wheel.schedule(id, deadlineTick(expiredAt(expiryDay)), expiryDay);
+                } else {
+                    alerts.add(alert(id, FoodStatus.EXPIRED, expiryDay, expiredAt(expiryDay)));
+                }
+            });
+        }
+        for (int from = 0; from < alerts.size(); from += batchSize) {
+            deliver(List.copyOf(alerts.subList(from, Math.min(alerts.size(), from + batchSize))));
+        }
+    }
+
+    private void deliver(List<ExpiryAlertDTO> batch) {
+        for (ExpiryAlertDTO alert : batch) {
+            (alert.getStatus() == FoodStatus.EXPIRED ? expiredAlerts : expiringSoonAlerts).increment();
+        }
+        for (ExpiryAlertSink sink : sinks) {
+            try {
+                sink.deliver(batch);
+            } catch (RuntimeException e) {
+                log.warn("Expiry alert sink {} failed on {} alerts", sink.getClass().getSimpleName(), batch.size(), e);
+            }
+        }
+    }
+
+    // Schedule the food's next crossing that is still ahead, if any
+    private void register(long id, int expiryDay) {
+        if (!wheel.schedule(id, deadlineTick(expiringSoonAt(expiryDay)), expiryDay)) {
+            wheel.schedule(id, deadlineTick(expiredAt(expiryDay)), expiryDay);
+        }
+    }
+
+    private ExpiryAlertDTO alert(long id, FoodStatus status, int expiryDay, Instant dueAt) {
+        return new ExpiryAlertDTO(id, status, LocalDate.ofEpochDay(expiryDay), dueAt);
+    }
+
+    // EXPIRING_SOON starts the day the days left reach EXPIRING_SOON_DAYS, EXPIRED the day after expiry
+    private Instant expiringSoonAt(int expiryDay) {
+        return LocalDate.ofEpochDay(expiryDay - Food.EXPIRING_SOON_DAYS).atStartOfDay(zone).toInstant();
+    }
+
+    private Instant expiredAt(int expiryDay) {
+        return LocalDate.ofEpochDay(expiryDay + 1L).atStartOfDay(zone).toInstant();
+    }
+
+    // First tick at or after the instant
+    private long deadlineTick(Instant instant) {
+        return Math.floorDiv(instant.toEpochMilli() + tick.toMillis() - 1, tick.toMillis());
+    }
+
+    private long currentTick() {
+        return Math.floorDiv(System.currentTimeMillis(), tick.toMillis());
+    }
+}
@@ -0,0 +1,11 @@
+package com.foodtracker.service;
+
+import com.foodtracker.dto.ExpiryAlertDTO;
+import java.util.List;
+
+// Receives alerts from ExpiryAlertScheduler in batches of up to foodtracker.alerts.batch-size.
+// Called on the scheduler thread, so anything slow should be handed off.
+public interface ExpiryAlertSink {
+
+    void deliver(List<ExpiryAlertDTO> alerts);
+}
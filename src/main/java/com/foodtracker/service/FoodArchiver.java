@@ -0,0 +1,71 @@
+package com.foodtracker.service;
+
+import com.foodtracker.repository.DonatedFoodRepository;
+import com.foodtracker.repository.FoodRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.List;
+
+// Moves donated foods from foods into donated_foods so the hot table holds only active inventory.
+// Donated rows are already gone from every active view, so moving them publishes no change event.
+@Component
+public class FoodArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(FoodArchiver.class);
+
+    @Autowired
+    private FoodRepository foodRepository;
+
+    @Autowired
+    private DonatedFoodRepository donatedFoodRepository;
+
+    @Autowired
+    private FoodChangeLog changeLog;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired(required = false)
+    private WriteBehindQueue writeBehind;
+
+    @Value("${foodtracker.archive.batch-size:1000}")
+    private int batchSize;
+
+    // Each batch is copied and deleted in its own transaction, serialized with inventory writes
+    @Scheduled(cron = "${foodtracker.archive.cron:0 0 4 * * *}")
+    public int archiveDonated() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        int archived = 0;
+        int moved;
+        do {
+            moved = changeLog.serialize(() -> {
+                // Donations still in the write-behind queue become rows to move
+                if (writeBehind != null) {
+                    writeBehind.drain();
+                }
+                return transaction.execute(status -> {
+                    List<Long> ids = foodRepository.findDonatedIds(Limit.of(batchSize));
+                    if (ids.isEmpty()) {
+                        return 0;
+                    }
+                    int copied = donatedFoodRepository.copyDonatedFoods(ids);
+                    int deleted = foodRepository.deleteDonatedByIdIn(ids);
+                    if (copied != deleted) {
+                        throw new IllegalStateException("Archived " + copied + " donated foods but removed " + deleted);
+                    }
+                    return deleted;
+                });
+            });
+            archived += moved;
+        } while (moved == batchSize);
+        log.info("Archived {} donated foods", archived);
+        return archived;
+    }
+}
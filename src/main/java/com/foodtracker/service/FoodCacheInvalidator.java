@@ -0,0 +1,48 @@
+package com.foodtracker.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Frees cached reads that can no longer be hit. Entries are keyed by InventoryVersion.cacheKey,
+// which moves only after a change has committed and every listener has applied it, so stale
+// values are never served, even if a read that loaded pre-commit data stores them after this
+// runs. Clearing just keeps such entries from holding memory until they expire.
+@Component
+public class FoodCacheInvalidator {
+
+    private static final Logger log = LoggerFactory.getLogger(FoodCacheInvalidator.class);
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @EventListener
+    public void onFoodChange(FoodChangeEvent event) {
+        clearAll();
+    }
+
+    // Keys carry the day too, since every cached DTO has a status and days-until-expiry for it
+    @Scheduled(cron = "0 0 0 * * *")
+    public void clearAtMidnight() {
+        clearAll();
+        log.debug("Cleared all caches at the day boundary");
+    }
+
+    private void clearAll() {
+        for (String name : cacheManager.getCacheNames()) {
+            clear(name);
+        }
+    }
+
+    private void clear(String name) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.foodtracker.service;
+
+import com.foodtracker.model.Food;
+
+// Published by FoodService after a food has been added, updated, deleted or donated. Events are
+// delivered one at a time in commit order, so listeners can apply them as they come without
+// comparing versions.
+public class FoodChangeEvent {
+
+    public enum Type {
+        ADDED,
+        UPDATED,
+        DELETED,
+        DONATED
+    }
+
+    private final Type type;
+    private final Food food;
+    private final Food previous;
+
+    // For DELETED the food is the last state before removal
+    public FoodChangeEvent(Type type, Food food) {
+        this(type, food, null);
+    }
+
+    // For UPDATED, previous is a copy of the food before the change
+    public FoodChangeEvent(Type type, Food food, Food previous) {
+        this.type = type;
+        this.food = food;
+        this.previous = previous;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Food getFood() {
+        return food;
+    }
+
+    public Food getPrevious() {
+        return previous;
+    }
+
+    // Whether the food is part of the active (not donated) inventory after this change
+    public boolean isActive() {
+        return type != Type.DELETED && (food.getDonated() == null || !food.getDonated());
+    }
+
+    @Override
+    public String toString() {
+        return "FoodChangeEvent{" +
+                "type=" + type +
+                ", id=" + food.getId() +
+                '}';
+    }
+}
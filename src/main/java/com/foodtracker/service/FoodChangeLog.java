@@ -0,0 +1,72 @@
+package com.foodtracker.service;
+
+import com.foodtracker.model.FoodChange;
+import com.foodtracker.repository.FoodChangeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+// Persistent log of inventory changes behind GET /api/foods/changes.
+// Writers are serialized so change ids are handed out in commit order; otherwise a client could
+// sync past an id whose transaction had not committed yet and never see that change.
+@Component
+public class FoodChangeLog {
+
+    private static final Logger log = LoggerFactory.getLogger(FoodChangeLog.class);
+
+    @Autowired
+    private FoodChangeRepository changeRepository;
+
+    @Value("${foodtracker.changes.retention-days:30}")
+    private int retentionDays;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    // Run a write (including its commit) while holding the change log lock
+    public <T> T serialize(Supplier<T> write) {
+        writeLock.lock();
+        try {
+            return write.get();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Must be called inside the transaction that makes the change
+    public void record(FoodChangeEvent event) {
+        FoodChange.Type type = FoodChange.Type.valueOf(event.getType().name());
+        changeRepository.save(new FoodChange(null, event.getFood().getId(), type, Instant.now()));
+    }
+
+    // Highest change id, or 0 before anything has been logged
+    public long currentVersion() {
+        Long maxId = changeRepository.findMaxId();
+        return maxId != null ? maxId : 0;
+    }
+
+    // Oldest version a client can still sync from; anything older needs a full snapshot
+    public long horizon() {
+        Long minId = changeRepository.findMinId();
+        return minId != null ? minId - 1 : 0;
+    }
+
+    @Scheduled(cron = "${foodtracker.changes.compaction-cron:0 30 3 * * *}")
+    @Transactional
+    public void compact() {
+        Long maxId = changeRepository.findMaxId();
+        if (maxId == null) {
+            return;
+        }
+        Instant cutoff = Instant.now().minus(Duration.ofDays(retentionDays));
+        int removed = changeRepository.deleteOlderThan(cutoff, maxId);
+        log.info("Compacted {} change log entries older than {}", removed, cutoff);
+    }
+}
@@ -0,0 +1,153 @@
+package com.foodtracker.service;
+
+import com.foodtracker.dto.ExpiryAlertDTO;
+import com.foodtracker.dto.InventoryEventDTO;
+import com.foodtracker.index.ExpiryTransitionEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Fans inventory events out to Server-Sent Events subscribers. Idle connections hold no thread:
+// each client has a bounded queue, and a virtual thread drains it only while events are pending.
+// A client that falls a full queue behind is disconnected and left to reconnect.
+@Component
+public class FoodEventBroadcaster implements ExpiryAlertSink {
+
+    private static final Logger log = LoggerFactory.getLogger(FoodEventBroadcaster.class);
+
+    @Autowired
+    private FoodService foodService;
+
+    @Value("${foodtracker.events.client-buffer:256}")
+    private int clientBuffer;
+
+    @Value("${foodtracker.events.timeout:30m}")
+    private Duration timeout;
+
+    private final Map<Long, Client> clients = new ConcurrentHashMap<>();
+    private final AtomicLong nextClientId = new AtomicLong();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        long id = nextClientId.incrementAndGet();
+        Client client = new Client(emitter, new ArrayBlockingQueue<>(clientBuffer));
+        clients.put(id, client);
+        emitter.onCompletion(() -> clients.remove(id));
+        emitter.onTimeout(() -> clients.remove(id));
+        emitter.onError(error -> clients.remove(id));
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return clients.size();
+    }
+
+    @EventListener
+    public void onFoodChange(FoodChangeEvent event) {
+        InventoryEventDTO payload = new InventoryEventDTO(
+                event.getType().name(),
+                event.getFood().getId(),
+                event.isActive() ? foodService.convertToDTO(event.getFood()) : null);
+        broadcast(SseEmitter.event().name("food-change").data(payload));
+    }
+
+    @EventListener
+    public void onExpiryTransition(ExpiryTransitionEvent event) {
+        broadcast(SseEmitter.event().name("expiry-transition").data(event));
+    }
+
+    // One event per alert batch, so a midnight burst costs each client a few queue slots
+    @Override
+    public void deliver(List<ExpiryAlertDTO> alerts) {
+        if (!clients.isEmpty()) {
+            broadcast(SseEmitter.event().name("expiry-alert").data(alerts));
+        }
+    }
+
+    // Keeps proxies from closing quiet connections and flushes out clients that have gone away
+    @Scheduled(fixedDelayString = "${foodtracker.events.heartbeat:PT30S}")
+    public void heartbeat() {
+        if (!clients.isEmpty()) {
+            broadcast(SseEmitter.event().comment("heartbeat"));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        clients.values().forEach(client -> client.emitter.complete());
+        senders.shutdownNow();
+    }
+
+    // The event is rendered once and the result shared: build() appends to the builder, so it must
+    // not be called again per client
+    private void broadcast(SseEmitter.SseEventBuilder builder) {
+        Set<ResponseBodyEmitter.DataWithMediaType> event = builder.build();
+        clients.forEach((id, client) -> {
+            if (!client.queue.offer(event)) {
+                log.debug("Dropping slow event subscriber {}", id);
+                clients.remove(id);
+                client.emitter.complete();
+                return;
+            }
+            if (client.draining.compareAndSet(false, true)) {
+                senders.execute(() -> drain(id, client));
+            }
+        });
+    }
+
+    private void drain(long id, Client client) {
+        do {
+            try {
+                Set<ResponseBodyEmitter.DataWithMediaType> event;
+                while ((event = client.queue.poll()) != null) {
+                    client.emitter.send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                clients.remove(id);
+                client.queue.clear();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Disconnecting event subscriber {} after a failed send", id, e);
+                clients.remove(id);
+                client.queue.clear();
+                client.emitter.complete();
+                return;
+            } finally {
+                // Cleared on every exit, so a failure cannot leave the client without a drainer
+                client.draining.set(false);
+            }
+            // An event may have been queued after the last poll but before draining was cleared
+        } while (!client.queue.isEmpty() && client.draining.compareAndSet(false, true));
+    }
+
+    private static class Client {
+        final SseEmitter emitter;
+        final Queue<Set<ResponseBodyEmitter.DataWithMediaType>> queue;
+        final AtomicBoolean draining = new AtomicBoolean();
+
+        Client(SseEmitter emitter, Queue<Set<ResponseBodyEmitter.DataWithMediaType>> queue) {
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+    }
+}
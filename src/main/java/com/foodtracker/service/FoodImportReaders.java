@@ -0,0 +1,153 @@
+package com.foodtracker.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foodtracker.dto.FoodDTO;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+// Line-at-a-time readers for bulk import. next() throws IllegalArgumentException for a
+// malformed row so the importer can record it and carry on with the following line.
+public final class FoodImportReaders {
+
+    private FoodImportReaders() {
+    }
+
+    // One FoodDTO JSON object per line
+    public static Iterator<FoodDTO> ndjson(BufferedReader reader, ObjectMapper objectMapper) {
+        return new LineIterator(reader, line -> {
+            try {
+                return objectMapper.readValue(line, FoodDTO.class);
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Invalid JSON: " + e.getOriginalMessage());
+            }
+        });
+    }
+
+    // Header row naming the columns (name, quantity, unit, expiryDate, category, addedDate), then one food per line
+    public static Iterator<FoodDTO> csv(BufferedReader reader) {
+        String header;
+        try {
+            header = nextNonBlankLine(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (header == null) {
+            return new LineIterator(reader, line -> null);
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = splitCsv(header);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : new String[] {"name", "quantity", "unit", "expirydate", "category"}) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("CSV header is missing column: " + required);
+            }
+        }
+        return new LineIterator(reader, line -> {
+            List<String> fields = splitCsv(line);
+            try {
+                return FoodDTO.builder()
+                        .name(field(fields, columns, "name"))
+                        .quantity(Integer.valueOf(field(fields, columns, "quantity")))
+                        .unit(field(fields, columns, "unit"))
+                        .expiryDate(LocalDate.parse(field(fields, columns, "expirydate")))
+                        .category(field(fields, columns, "category"))
+                        .addedDate(columns.containsKey("addeddate") && !field(fields, columns, "addeddate").isEmpty()
+                                ? LocalDate.parse(field(fields, columns, "addeddate")) : null)
+                        .build();
+            } catch (NumberFormatException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid value: " + e.getMessage());
+            }
+        });
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String column) {
+        int index = columns.get(column);
+        return index < fields.size() ? fields.get(index).trim() : "";
+    }
+
+    // Comma-separated fields with optional double quotes ("" is an escaped quote)
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    private static String nextNonBlankLine(BufferedReader reader) throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (!line.isBlank()) {
+                return line;
+            }
+        }
+        return null;
+    }
+
+    private static class LineIterator implements Iterator<FoodDTO> {
+        private final BufferedReader reader;
+        private final Function<String, FoodDTO> parser;
+        private String nextLine;
+
+        LineIterator(BufferedReader reader, Function<String, FoodDTO> parser) {
+            this.reader = reader;
+            this.parser = parser;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (nextLine == null) {
+                try {
+                    nextLine = nextNonBlankLine(reader);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return nextLine != null;
+        }
+
+        @Override
+        public FoodDTO next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            String line = nextLine;
+            nextLine = null;
+            return parser.apply(line);
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.foodtracker.service;
+
+import com.foodtracker.dto.FoodQueryDTO;
+import com.foodtracker.model.Food;
+import com.foodtracker.model.FoodStatus;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Parameter;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Compiles a FoodQueryDTO into one parameterized JPQL select per table. The statement depends only
+// on the query's shape (which filters are set, the status set, sort and projection), never on the
+// filter values, so compiled plans are cached by shape and Hibernate's own plan cache sees the
+// same string for every query of that shape. Donated foods FoodArchiver has moved live in
+// donated_foods, so a query that can match donated foods also runs there and the results merge.
+@Component
+public class FoodQueryCompiler {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+    private static final int MAX_CACHED_PLANS = 256;
+
+    // Fields a query can project, in output order; status and daysUntilExpiry derive from expiryDate
+    public static final List<String> FIELDS = List.of("id", "name", "quantity", "unit", "expiryDate",
+            "addedDate", "category", "donated", "donatedDate", "version", "status", "daysUntilExpiry");
+    private static final List<String> DEFAULT_FIELDS = List.of("id", "name", "quantity", "unit", "expiryDate",
+            "addedDate", "category", "status", "daysUntilExpiry", "version");
+    public static final List<String> SORT_FIELDS = List.of("id", "name", "quantity", "expiryDate", "addedDate", "category");
+    private static final String DEFAULT_SORT = "expiryDate";
+
+    private enum Source { FOODS, ARCHIVE }
+
+    // Everything the JPQL text depends on
+    private record Shape(Source source, List<String> fields, String sortField, boolean descending,
+                         boolean namePrefix, boolean categories, Set<FoodStatus> statuses,
+                         boolean expiryFrom, boolean expiryTo, boolean donated) {
+    }
+
+    // One result row with the values the merge sorts by
+    private record Row(Comparable<Object> sortKey, long id, Map<String, Object> values) {
+    }
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Cache<Shape, Plan> plans = Caffeine.newBuilder().maximumSize(MAX_CACHED_PLANS).recordStats().build();
+
+    private DistributionSummary rowsScanned;
+    private DistributionSummary rowsReturned;
+
+    // Rows fetched across both tables against the merged page, the same meters FoodService records
+    @PostConstruct
+    public void registerMeters() {
+        CaffeineCacheMetrics.monitor(meterRegistry, plans, "foodtracker.query.plans");
+        rowsScanned = DistributionSummary.builder("foodtracker.foods.scanned").tag("query", "query")
+                .baseUnit("rows").register(meterRegistry);
+        rowsReturned = DistributionSummary.builder("foodtracker.foods.returned").tag("query", "query")
+                .baseUnit("rows").register(meterRegistry);
+    }
+
+    // Run the query against every table that can hold matches and return up to its limit of rows,
+    // each with just the requested fields. Throws IllegalArgumentException for an unknown field or
+    // sort key.
+    public List<Map<String, Object>> run(EntityManager entityManager, FoodQueryDTO query) {
+        List<String> fields = fields(query.getFields());
+        String sort = query.getSort() == null || query.getSort().isBlank() ? DEFAULT_SORT : query.getSort().trim();
+        boolean descending = sort.startsWith("-");
+        String sortField = descending ? sort.substring(1) : sort;
+        if (!SORT_FIELDS.contains(sortField)) {
+            throw new IllegalArgumentException("Cannot sort by " + sortField + "; expected one of " + SORT_FIELDS);
+        }
+        int limit = query.getLimit() == null ? DEFAULT_LIMIT : Math.max(1, Math.min(query.getLimit(), MAX_LIMIT));
+        int today = (int) LocalDate.now().toEpochDay();
+
+        List<Row> rows = plan(Source.FOODS, query, fields, sortField, descending)
+                .execute(entityManager, query, today, limit);
+        if (!Boolean.FALSE.equals(query.getDonated())) {
+            rows = new ArrayList<>(rows);
+            rows.addAll(plan(Source.ARCHIVE, query, fields, sortField, descending)
+                    .execute(entityManager, query, today, limit));
+            Comparator<Row> order = Comparator.comparing(Row::sortKey).thenComparingLong(Row::id);
+            rows.sort(descending ? order.reversed() : order);
+        }
+        rowsScanned.record(rows.size());
+        rows = rows.subList(0, Math.min(limit, rows.size()));
+        rowsReturned.record(rows.size());
+        return rows.stream().map(Row::values).collect(Collectors.toList());
+    }
+
+    private static List<String> fields(List<String> requested) {
+        if (requested == null || requested.isEmpty()) {
+            return DEFAULT_FIELDS;
+        }
+        Set<String> fields = new LinkedHashSet<>();
+        for (String field : requested) {
+            if (!FIELDS.contains(field.trim())) {
+                throw new IllegalArgumentException("Unknown field " + field + "; expected some of " + FIELDS);
+            }
+            fields.add(field.trim());
+        }
+        return List.copyOf(fields);
+    }
+
+    private Plan plan(Source source, FoodQueryDTO query, List<String> fields, String sortField, boolean descending) {
+        Set<FoodStatus> statuses = query.getStatuses() == null || query.getStatuses().isEmpty()
+                ? Set.of() : EnumSet.copyOf(query.getStatuses());
+        Shape shape = new Shape(source, fields, sortField, descending,
+                query.getNamePrefix() != null && !query.getNamePrefix().isBlank(),
+                query.getCategories() != null && !query.getCategories().isEmpty(),
+                statuses, query.getExpiryFrom() != null, query.getExpiryTo() != null,
+                source == Source.FOODS && query.getDonated() != null);
+        return plans.get(shape, Plan::new);
+    }
+
+    // A compiled statement plus where each requested field comes from in its result tuples
+    private static final class Plan {
+        private final Shape shape;
+        private final String jpql;
+        private final List<String> columns;
+
+        Plan(Shape shape) {
+            this.shape = shape;
+            Source source = shape.source();
+            String day = source == Source.FOODS ? "f.expiryEpochDay" : "f.expiryDate";
+
+            // The id and sort key are always selected, for merging with the other table
+            Set<String> columns = new LinkedHashSet<>(List.of("id", shape.sortField()));
+            for (String field : shape.fields()) {
+                switch (field) {
+                    case "status", "daysUntilExpiry" -> columns.add("expiryDate");
+                    case "donated", "version" -> {
+                        if (source == Source.FOODS) {
+                            columns.add(field);
+                        }
+                    }
+                    default -> columns.add(field);
+                }
+            }
+            this.columns = List.copyOf(columns);
+
+            List<String> predicates = new ArrayList<>();
+            if (shape.donated()) {
+                predicates.add("f.donated = :donated");
+            }
+            // Names and categories compare through their lower-cased key columns, which both tables
+            // index, so matching is case-insensitive (as in the facet counts) without a scan
+            if (shape.namePrefix()) {
+                predicates.add("f.nameKey LIKE :namePrefix ESCAPE '\\'");
+            }
+            if (shape.categories()) {
+                predicates.add("f.categoryKey IN :categories");
+            }
+            if (!shape.statuses().isEmpty()) {
+                String status = statusPredicate(day, shape.statuses());
+                if (status != null) {
+                    predicates.add(status);
+                }
+            }
+            if (shape.expiryFrom()) {
+                predicates.add(day + " >= :expiryFrom");
+            }
+            if (shape.expiryTo()) {
+                predicates.add(day + " <= :expiryTo");
+            }
+
+            String sortExpression = switch (shape.sortField()) {
+                // The same lower-cased keys the merge orders by, so each table's top rows are the
+                // ones the merged page needs
+                case "name" -> "f.nameKey";
+                case "category" -> "f.categoryKey";
+                case "expiryDate" -> day;
+                default -> "f." + shape.sortField();
+            };
+            String direction = shape.descending() ? " DESC" : "";
+            this.jpql = "SELECT " + this.columns.stream().map(column -> "f." + column).collect(Collectors.joining(", ")) +
+                    " FROM " + (source == Source.FOODS ? "Food" : "DonatedFood") + " f" +
+                    (predicates.isEmpty() ? "" : " WHERE " + String.join(" AND ", predicates)) +
+                    " ORDER BY " + sortExpression + direction + ", f.id" + direction;
+        }
+
+        // Statuses are contiguous expiry-day ranges, so any set but {EXPIRED, GOOD} is one range
+        private static String statusPredicate(String day, Set<FoodStatus> statuses) {
+            boolean expired = statuses.contains(FoodStatus.EXPIRED);
+            boolean soon = statuses.contains(FoodStatus.EXPIRING_SOON);
+            boolean good = statuses.contains(FoodStatus.GOOD);
+            if (expired && soon && good) {
+                return null;
+            }
+            if (expired && good) {
+                return "(" + day + " < :today OR " + day + " > :soonEnd)";
+            }
+            List<String> bounds = new ArrayList<>();
+            if (!expired) {
+                bounds.add(soon ? day + " >= :today" : day + " > :soonEnd");
+            }
+            if (!good) {
+                bounds.add(soon ? day + " <= :soonEnd" : day + " < :today");
+            }
+            return String.join(" AND ", bounds);
+        }
+
+        List<Row> execute(EntityManager entityManager, FoodQueryDTO query, int today, int limit) {
+            TypedQuery<Tuple> statement = entityManager.createQuery(jpql, Tuple.class);
+            for (Parameter<?> parameter : statement.getParameters()) {
+                String name = parameter.getName();
+                switch (name) {
+                    case "donated" -> statement.setParameter(name, query.getDonated());
+                    case "namePrefix" -> statement.setParameter(name, likePrefix(query.getNamePrefix()));
+                    case "categories" -> statement.setParameter(name, lowerCase(query.getCategories()));
+                    case "today" -> statement.setParameter(name, day(today));
+                    case "soonEnd" -> statement.setParameter(name, day(today + Food.EXPIRING_SOON_DAYS));
+                    case "expiryFrom" -> statement.setParameter(name, day((int) query.getExpiryFrom().toEpochDay()));
+                    case "expiryTo" -> statement.setParameter(name, day((int) query.getExpiryTo().toEpochDay()));
+                    default -> throw new IllegalStateException("Unbound query parameter " + name);
+                }
+            }
+            statement.setMaxResults(limit);
+
+            List<Row> rows = new ArrayList<>();
+            for (Tuple tuple : statement.getResultList()) {
+                rows.add(row(tuple, today));
+            }
+            return rows;
+        }
+
+        private Object day(int epochDay) {
+            return shape.source() == Source.FOODS ? epochDay : LocalDate.ofEpochDay(epochDay);
+        }
+
+        @SuppressWarnings("unchecked")
+        private Row row(Tuple tuple, int today) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (String field : shape.fields()) {
+                switch (field) {
+                    case "status" -> values.put(field, FoodStatus.of(daysUntilExpiry(tuple, today)));
+                    case "daysUntilExpiry" -> values.put(field, daysUntilExpiry(tuple, today));
+                    case "donated" -> values.put(field, shape.source() == Source.FOODS ? value(tuple, field) : Boolean.TRUE);
+                    case "version" -> values.put(field, shape.source() == Source.FOODS ? value(tuple, field) : null);
+                    default -> values.put(field, value(tuple, field));
+                }
+            }
+            Object sortKey = value(tuple, shape.sortField());
+            if (sortKey instanceof String name) {
+                sortKey = Food.searchKey(name);
+            }
+            return new Row((Comparable<Object>) sortKey, (Long) value(tuple, "id"), values);
+        }
+
+        private Object value(Tuple tuple, String column) {
+            return tuple.get(columns.indexOf(column));
+        }
+
+        private long daysUntilExpiry(Tuple tuple, int today) {
+            return ((LocalDate) value(tuple, "expiryDate")).toEpochDay() - today;
+        }
+
+        private static List<String> lowerCase(List<String> values) {
+            return values.stream().map(value -> Food.searchKey(value.trim())).toList();
+        }
+
+        // Lower-cased LIKE pattern matching names that start with the prefix literally
+        private static String likePrefix(String prefix) {
+            String escaped = Food.searchKey(prefix.trim())
+                    .replace("\\", "\\\\")
+                    .replace("%", "\\%")
+                    .replace("_", "\\_");
+            return escaped + "%";
+        }
+    }
+}
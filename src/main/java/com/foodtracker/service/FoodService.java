@@ -1,21 +1,144 @@
 package com.foodtracker.service;
 
+import com.foodtracker.index.ExpiryIndex;
+import com.foodtracker.index.FoodFacetIndex;
+import com.foodtracker.index.InventorySnapshot;
+import com.foodtracker.index.InventorySnapshotIndex;
+import com.foodtracker.index.FoodSearchIndex;
+import com.foodtracker.config.CacheConfig;
 import com.foodtracker.model.Food;
+import com.foodtracker.model.FoodChange;
+import com.foodtracker.model.FoodStatus;
+import com.foodtracker.repository.DonatedFoodRepository;
+import com.foodtracker.repository.FoodChangeRepository;
+import com.foodtracker.dto.BulkImportResultDTO;
+import com.foodtracker.dto.FacetCountsDTO;
+import com.foodtracker.dto.FoodChangesDTO;
 import com.foodtracker.dto.FoodDTO;
+import com.foodtracker.dto.FoodPageDTO;
+import com.foodtracker.dto.FoodQueryDTO;
 import com.foodtracker.repository.FoodRepository;
+import com.foodtracker.repository.FoodStatusCounts;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+// Every public method records a foodtracker.service timer tagged with its name; reads that examine
+// more rows than they return also record foodtracker.foods.scanned against foodtracker.foods.returned
 @Service
+@Timed(value = "foodtracker.service", histogram = true)
 public class FoodService {
     
+    private static final Logger log = LoggerFactory.getLogger(FoodService.class);
+    private static final int MAX_REPORTED_IMPORT_ERRORS = 100;
+    
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final int DEFAULT_SEARCH_LIMIT = 50;
+    public static final int MAX_SEARCH_LIMIT = 500;
+    public static final int MAX_CHANGES_PER_SYNC = 1000;
+    
     @Autowired
     private FoodRepository foodRepository;
     
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private FoodSearchIndex searchIndex;
+    
+    @Autowired
+    private FoodFacetIndex facetIndex;
+    
+    @Autowired
+    private FoodQueryCompiler queryCompiler;
+    
+    @Autowired
+    private InventoryVersion inventoryVersion;
+    
+    @Autowired
+    private FoodChangeLog changeLog;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private FoodChangeRepository changeRepository;
+    
+    @Autowired
+    private DonatedFoodRepository donatedFoodRepository;
+    
+    @Value("${foodtracker.import.batch-size:500}")
+    private int importBatchSize;
+    
+    private DistributionSummary searchScanned;
+    private DistributionSummary searchReturned;
+    private DistributionSummary changesScanned;
+    private DistributionSummary changesReturned;
+    
+    // Absent when foodtracker.expiry-index.enabled=false; statistics then come from the database
+    @Autowired(required = false)
+    private ExpiryIndex expiryIndex;
+    
+    // Absent when foodtracker.snapshot.enabled=false; active-inventory reads then go to the database
+    @Autowired(required = false)
+    private InventorySnapshotIndex inventorySnapshot;
+    
+    // Present when foodtracker.write-behind.enabled=true; add, update and donate are then journaled
+    // and flushed to the database in batches
+    @Autowired(required = false)
+    private WriteBehindQueue writeBehind;
+    
+    @PostConstruct
+    public void registerMeters() {
+        searchScanned = rowSummary("foodtracker.foods.scanned", "search");
+        searchReturned = rowSummary("foodtracker.foods.returned", "search");
+        changesScanned = rowSummary("foodtracker.foods.scanned", "changes");
+        changesReturned = rowSummary("foodtracker.foods.returned", "changes");
+    }
+    
+    private DistributionSummary rowSummary(String name, String query) {
+        return DistributionSummary.builder(name).tag("query", query).baseUnit("rows").register(meterRegistry);
+    }
+    
     public FoodDTO convertToDTO(Food food) {
+        long daysLeft = food.getDaysUntilExpiry();
         FoodDTO dto = new FoodDTO();
         dto.setId(food.getId());
         dto.setName(food.getName());
@@ -24,8 +147,25 @@ public class FoodService {
         dto.setExpiryDate(food.getExpiryDate());
         dto.setAddedDate(food.getAddedDate());
         dto.setCategory(food.getCategory());
-        dto.setStatus(food.getStatus());
-        dto.setDaysUntilExpiry(food.getDaysUntilExpiry());
+        dto.setStatus(FoodStatus.of(daysLeft));
+        dto.setDaysUntilExpiry(daysLeft);
+        dto.setVersion(food.getVersion());
+        return dto;
+    }
+    
+    // Fill in the day-dependent fields of projected rows against one "today" for the whole list
+    private static List<FoodDTO> withExpiry(List<FoodDTO> foods) {
+        long today = LocalDate.now().toEpochDay();
+        for (FoodDTO dto : foods) {
+            withExpiry(dto, today);
+        }
+        return foods;
+    }
+    
+    private static FoodDTO withExpiry(FoodDTO dto, long today) {
+        long daysLeft = dto.getExpiryDate().toEpochDay() - today;
+        dto.setStatus(FoodStatus.of(daysLeft));
+        dto.setDaysUntilExpiry(daysLeft);
         return dto;
     }
     
@@ -46,93 +186,193 @@ public class FoodService {
         if (food.getAddedDate() == null) {
             food.setAddedDate(LocalDate.now());
         }
-        Food saved = foodRepository.save(food);
-        return convertToDTO(saved);
+        if (writeBehind != null) {
+            return convertToDTO(writeBehind.add(food).getFood());
+        }
+        FoodChangeEvent event = writeInTransaction(() -> {
+            Food saved = foodRepository.save(food);
+            return record(new FoodChangeEvent(FoodChangeEvent.Type.ADDED, saved));
+        });
+        return convertToDTO(event.getFood());
     }
     
     public List<FoodDTO> getAllFoods() {
-        return foodRepository.findAll().stream()
-                .filter(food -> food.getDonated() == null || !food.getDonated())
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return getActiveFoods();
     }
     
     public FoodDTO getFoodById(Long id) {
-        return foodRepository.findById(id).map(this::convertToDTO).orElse(null);
+        Food pending = writeBehind != null ? writeBehind.pending(id) : null;
+        if (pending != null) {
+            return convertToDTO(pending);
+        }
+        return foodRepository.findById(id).map(this::convertToDTO).orElseGet(() -> {
+            FoodDTO archived = donatedFoodRepository.findDTOById(id);
+            return archived != null ? withExpiry(archived, LocalDate.now().toEpochDay()) : null;
+        });
     }
     
+    // A version in the DTO must match the stored one, so an edit based on a stale read is
+    // rejected instead of silently overwriting newer changes; without one the last write wins
     public FoodDTO updateFood(Long id, FoodDTO foodDTO) {
-        return foodRepository.findById(id).map(food -> {
+        Consumer<Food> update = food -> {
+            if (foodDTO.getVersion() != null && !foodDTO.getVersion().equals(food.getVersion())) {
+                throw new ObjectOptimisticLockingFailureException(Food.class, id);
+            }
             food.setName(foodDTO.getName());
             food.setQuantity(foodDTO.getQuantity());
             food.setUnit(foodDTO.getUnit());
             food.setExpiryDate(foodDTO.getExpiryDate());
             food.setCategory(foodDTO.getCategory());
+        };
+        if (writeBehind != null) {
+            FoodChangeEvent event = writeBehind.change(id, FoodChangeEvent.Type.UPDATED, update);
+            return event != null ? convertToDTO(event.getFood()) : null;
+        }
+        FoodChangeEvent event = writeInTransaction(() -> foodRepository.findById(id).map(food -> {
+            Food previous = food.copy();
+            update.accept(food);
             Food updated = foodRepository.save(food);
-            return convertToDTO(updated);
-        }).orElse(null);
+            return record(new FoodChangeEvent(FoodChangeEvent.Type.UPDATED, updated, previous));
+        }).orElse(null));
+        if (event == null) {
+            return null;
+        }
+        return convertToDTO(event.getFood());
+    }
+    
+    // Take amount off the quantity with one conditional UPDATE, so concurrent consumers never lose
+    // a decrement or drive the quantity negative. Null if there is no such active food.
+    public FoodDTO consumeFood(Long id, int amount) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("amount must be positive");
+        }
+        FoodChangeEvent event = writeInTransaction(() -> {
+            if (foodRepository.consume(id, amount) == 0) {
+                Food food = foodRepository.findById(id)
+                        .filter(f -> !Boolean.TRUE.equals(f.getDonated()))
+                        .orElse(null);
+                if (food == null) {
+                    return null;
+                }
+                throw new InsufficientQuantityException(id, amount, food.getQuantity());
+            }
+            Food consumed = foodRepository.findById(id).orElseThrow();
+            Food previous = consumed.copy();
+            previous.setQuantity(consumed.getQuantity() + amount);
+            return record(new FoodChangeEvent(FoodChangeEvent.Type.UPDATED, consumed, previous));
+        });
+        if (event == null) {
+            return null;
+        }
+        return convertToDTO(event.getFood());
     }
     
     public boolean deleteFood(Long id) {
-        if (foodRepository.existsById(id)) {
-            foodRepository.deleteById(id);
-            return true;
+        FoodChangeEvent event = writeInTransaction(() -> foodRepository.findById(id).map(food -> {
+            foodRepository.delete(food);
+            return record(new FoodChangeEvent(FoodChangeEvent.Type.DELETED, food));
+        }).orElse(null));
+        if (event == null) {
+            return false;
         }
-        return false;
+        return true;
     }
     
+    @Cacheable(cacheNames = CacheConfig.FOODS_BY_STATUS, key = "@inventoryVersion.cacheKey('EXPIRED')")
     public List<FoodDTO> getExpiredFoods() {
-        return foodRepository.findAll().stream()
-                .filter(food -> (food.getDonated() == null || !food.getDonated()) && food.isExpired())
-                .sorted((a, b) -> Long.compare(b.getDaysUntilExpiry(), a.getDaysUntilExpiry()))
-                .map(this::convertToDTO).collect(Collectors.toList());
+        int today = (int) LocalDate.now().toEpochDay();
+        if (inventorySnapshot != null) {
+            return inventorySnapshot.current().expiringBefore(today, today);
+        }
+        return withExpiry(foodRepository.findActiveExpiredBefore(today));
     }
     
+    @Cacheable(cacheNames = CacheConfig.FOODS_BY_STATUS, key = "@inventoryVersion.cacheKey('EXPIRING_SOON')")
     public List<FoodDTO> getExpiringSoon() {
-        return foodRepository.findAll().stream()
-                .filter(food -> (food.getDonated() == null || !food.getDonated()) && food.isExpiringSoon() && !food.isExpired())
-                .sorted((a, b) -> Long.compare(a.getDaysUntilExpiry(), b.getDaysUntilExpiry()))
-                .map(this::convertToDTO).collect(Collectors.toList());
+        int today = (int) LocalDate.now().toEpochDay();
+        if (inventorySnapshot != null) {
+            return inventorySnapshot.current().expiringBetween(today, today + Food.EXPIRING_SOON_DAYS, today);
+        }
+        return withExpiry(foodRepository.findActiveExpiringBetween(today, today + Food.EXPIRING_SOON_DAYS));
     }
     
+    @Cacheable(cacheNames = CacheConfig.FOODS_BY_STATUS, key = "@inventoryVersion.cacheKey('GOOD')")
     public List<FoodDTO> getGoodFoods() {
-        return foodRepository.findAll().stream()
-                .filter(food -> (food.getDonated() == null || !food.getDonated()) && !food.isExpired() && !food.isExpiringSoon())
-                .sorted((a, b) -> Long.compare(a.getDaysUntilExpiry(), b.getDaysUntilExpiry()))
-                .map(this::convertToDTO).collect(Collectors.toList());
+        int today = (int) LocalDate.now().toEpochDay();
+        if (inventorySnapshot != null) {
+            return inventorySnapshot.current().expiringBetween(today + Food.EXPIRING_SOON_DAYS + 1, Integer.MAX_VALUE, today);
+        }
+        return withExpiry(foodRepository.findActiveExpiringAfter(today + Food.EXPIRING_SOON_DAYS));
     }
     
-    public List<FoodDTO> searchFoods(String name) {
-        return foodRepository.findByNameContainingIgnoreCase(name).stream()
-                .filter(food -> food.getDonated() == null || !food.getDonated())
-                .map(this::convertToDTO).collect(Collectors.toList());
+    // Ranked, typo-tolerant search over active food names and categories. A blank query matches
+    // every active food, in id order, as the name-containing search it replaced did.
+    public List<FoodDTO> searchFoods(String query, int limit) {
+        if (query.isBlank()) {
+            List<FoodDTO> all = withExpiry(foodRepository.findActive());
+            searchScanned.record(all.size());
+            searchReturned.record(all.size());
+            return all;
+        }
+        List<Long> ids = searchIndex.search(query, Math.min(limit, MAX_SEARCH_LIMIT));
+        if (ids.isEmpty()) {
+            searchScanned.record(0);
+            searchReturned.record(0);
+            return new ArrayList<>();
+        }
+        Map<Long, FoodDTO> foods = foodRepository.findActiveByIdIn(ids).stream()
+                .collect(Collectors.toMap(FoodDTO::getId, Function.identity()));
+        List<FoodDTO> found = withExpiry(ids.stream()
+                .map(foods::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList()));
+        searchScanned.record(ids.size());
+        searchReturned.record(found.size());
+        return found;
     }
     
+    @Cacheable(cacheNames = CacheConfig.FOODS_BY_CATEGORY, key = "@inventoryVersion.cacheKey(#category)")
     public List<FoodDTO> getFoodsByCategory(String category) {
-        return foodRepository.findByCategory(category).stream()
-                .filter(food -> food.getDonated() == null || !food.getDonated())
-                .map(this::convertToDTO).collect(Collectors.toList());
+        if (inventorySnapshot != null) {
+            return inventorySnapshot.current().inCategory(category, LocalDate.now().toEpochDay());
+        }
+        return withExpiry(foodRepository.findActiveByCategory(Food.searchKey(category), category));
     }
     
+    @Cacheable(cacheNames = CacheConfig.STATISTICS, key = "@inventoryVersion.cacheKey('statistics')")
     public StatisticsDTO getStatistics() {
-        List<Food> allFoods = foodRepository.findAll().stream()
-                .filter(food -> food.getDonated() == null || !food.getDonated())
-                .collect(Collectors.toList());
-        long expired = allFoods.stream().filter(Food::isExpired).count();
-        long expiringSoon = allFoods.stream().filter(food -> food.isExpiringSoon() && !food.isExpired()).count();
-        long good = allFoods.stream().filter(food -> !food.isExpired() && !food.isExpiringSoon()).count();
-        
-        LocalDate nextWeek = LocalDate.now().plusDays(7);
-        long expiringThisWeek = allFoods.stream()
-                .filter(food -> food.getExpiryDate().isBefore(nextWeek) && !food.isExpired()).count();
-        
-        StatisticsDTO stats = new StatisticsDTO();
-        stats.setTotalItems(allFoods.size());
-        stats.setExpiredCount((int) expired);
-        stats.setExpiringSoonCount((int) expiringSoon);
-        stats.setGoodCount((int) good);
-        stats.setExpiringThisWeekCount((int) expiringThisWeek);
-        return stats;
+        if (inventorySnapshot != null) {
+            return inventorySnapshot.current().statistics((int) LocalDate.now().toEpochDay());
+        }
+        if (expiryIndex != null) {
+            return expiryIndex.getStatistics();
+        }
+        int today = (int) LocalDate.now().toEpochDay();
+        FoodStatusCounts counts = foodRepository.countActiveByStatus(
+                today, today + Food.EXPIRING_SOON_DAYS, today + 7);
+        return StatisticsDTO.builder()
+                .totalItems(toInt(counts.getTotal()))
+                .expiredCount(toInt(counts.getExpired()))
+                .expiringSoonCount(toInt(counts.getExpiringSoon()))
+                .goodCount(toInt(counts.getGood()))
+                .expiringThisWeekCount(toInt(counts.getExpiringThisWeek()))
+                .build();
+    }
+    
+    // Filter, sort and project foods in one statement per table instead of intersecting list calls
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> queryFoods(FoodQueryDTO query) {
+        return queryCompiler.run(entityManager, query);
+    }
+    
+    // Count foods, including donated and archived ones, matching all given facets at once
+    public FacetCountsDTO countFacets(Collection<String> categories, Collection<FoodStatus> statuses,
+                                      Collection<String> units, Boolean donated) {
+        return facetIndex.count(categories, statuses, units, donated);
+    }
+    
+    private static int toInt(Long count) {
+        return count != null ? count.intValue() : 0;
     }
     
     public void addSampleData() {
@@ -147,25 +387,250 @@ public class FoodService {
     }
     
     public FoodDTO donateFood(Long id) {
-        return foodRepository.findById(id).map(food -> {
+        Consumer<Food> donate = food -> {
             food.setDonated(true);
             food.setDonatedDate(LocalDate.now());
+        };
+        if (writeBehind != null) {
+            FoodChangeEvent event = writeBehind.change(id, FoodChangeEvent.Type.DONATED, donate);
+            return event != null ? convertToDTO(event.getFood()) : null;
+        }
+        FoodChangeEvent event = writeInTransaction(() -> foodRepository.findById(id).map(food -> {
+            donate.accept(food);
             Food saved = foodRepository.save(food);
-            return convertToDTO(saved);
-        }).orElse(null);
+            return record(new FoodChangeEvent(FoodChangeEvent.Type.DONATED, saved));
+        }).orElse(null));
+        if (event == null) {
+            return null;
+        }
+        return convertToDTO(event.getFood());
     }
     
+    @Cacheable(cacheNames = CacheConfig.DONATED_FOODS, key = "@inventoryVersion.cacheKey('donated')")
     public List<FoodDTO> getDonatedFoods() {
-        return foodRepository.findAll().stream()
-                .filter(food -> food.getDonated() != null && food.getDonated())
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        // Recent donations until FoodArchiver moves them, then the archive; ids never overlap
+        List<FoodDTO> donated = new ArrayList<>(donatedFoodRepository.findAllDTOs());
+        donated.addAll(foodRepository.findDonated());
+        donated.sort(Comparator.comparing(FoodDTO::getId));
+        return withExpiry(donated);
     }
     
     public List<FoodDTO> getActiveFoods() {
-        return foodRepository.findAll().stream()
-                .filter(food -> food.getDonated() == null || !food.getDonated())
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        if (inventorySnapshot != null) {
+            return inventorySnapshot.current().all(LocalDate.now().toEpochDay());
+        }
+        return withExpiry(foodRepository.findActive());
+    }
+    
+    // Get one page of active foods in (expiryDate, id) order, starting after the given cursor
+    public FoodPageDTO getActiveFoodsPage(String cursor, int size) {
+        Limit limit = Limit.of(Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+        List<FoodDTO> foods;
+        InventorySnapshot snapshot = inventorySnapshot != null ? inventorySnapshot.current() : null;
+        long today = LocalDate.now().toEpochDay();
+        if (cursor == null || cursor.isBlank()) {
+            foods = snapshot != null ? snapshot.pageAfter(null, null, limit.max(), today)
+                    : withExpiry(foodRepository.findActivePage(limit));
+        } else {
+            int separator = cursor.lastIndexOf(':');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            try {
+                int afterDay = (int) LocalDate.parse(cursor.substring(0, separator)).toEpochDay();
+                Long afterId = Long.valueOf(cursor.substring(separator + 1));
+                foods = snapshot != null ? snapshot.pageAfter(afterDay, afterId, limit.max(), today)
+                        : withExpiry(foodRepository.findActivePageAfter(afterDay, afterId, limit));
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+            }
+        }
+        
+        String nextCursor = null;
+        if (foods.size() == limit.max()) {
+            FoodDTO last = foods.get(foods.size() - 1);
+            nextCursor = last.getExpiryDate() + ":" + last.getId();
+        }
+        return new FoodPageDTO(foods, nextCursor);
+    }
+    
+    // Feed every active food to the consumer as rows come off the snapshot or cursor, without collecting them
+    public void streamActiveFoods(Consumer<FoodDTO> consumer) {
+        long today = LocalDate.now().toEpochDay();
+        if (inventorySnapshot != null) {
+            inventorySnapshot.current().forEachByExpiry(today, consumer);
+            return;
+        }
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.executeWithoutResult(status -> {
+            try (Stream<FoodDTO> foods = foodRepository.streamActive()) {
+                foods.forEach(food -> consumer.accept(withExpiry(food, today)));
+            }
+        });
+    }
+    
+    // Insert foods in transactions of foodtracker.import.batch-size rows, collecting per-row errors.
+    // The iterator may throw IllegalArgumentException for a row it cannot parse.
+    public BulkImportResultDTO importFoods(Iterator<FoodDTO> rows) {
+        long start = System.nanoTime();
+        List<BulkImportResultDTO.RowError> errors = new ArrayList<>();
+        List<Food> batch = new ArrayList<>(importBatchSize);
+        List<Integer> batchRows = new ArrayList<>(importBatchSize);
+        int received = 0;
+        int imported = 0;
+        int failed = 0;
+        
+        while (rows.hasNext()) {
+            received++;
+            try {
+                FoodDTO dto = rows.next();
+                validateForImport(dto);
+                Food food = convertToEntity(dto);
+                food.setId(null);
+                batch.add(food);
+                batchRows.add(received);
+            } catch (IllegalArgumentException e) {
+                failed++;
+                addImportError(errors, received, e.getMessage());
+            }
+            if (batch.size() >= importBatchSize || (!rows.hasNext() && !batch.isEmpty())) {
+                try {
+                    List<FoodChangeEvent> events = writeInTransaction(() -> {
+                        List<FoodChangeEvent> added = new ArrayList<>(batch.size());
+                        for (Food food : batch) {
+                            entityManager.persist(food);
+                            added.add(record(new FoodChangeEvent(FoodChangeEvent.Type.ADDED, food)));
+                        }
+                        entityManager.flush();
+                        entityManager.clear();
+                        return added;
+                    }, added -> {
+                        // One snapshot swap for the whole batch; the per-event deliveries then find it applied
+                        if (inventorySnapshot != null) {
+                            inventorySnapshot.apply(added);
+                        }
+                        for (FoodChangeEvent event : added) {
+                            eventPublisher.publishEvent(event);
+                        }
+                        inventoryVersion.increment();
+                    });
+                    imported += events.size();
+                } catch (RuntimeException e) {
+                    failed += batch.size();
+                    for (int row : batchRows) {
+                        addImportError(errors, row, "Batch rejected by database: " + e.getMessage());
+                    }
+                }
+                batch.clear();
+                batchRows.clear();
+                log.info("Bulk import progress: {} rows read, {} imported, {} failed", received, imported, failed);
+            }
+        }
+        
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        double rowsPerSecond = elapsedMillis > 0 ? imported * 1000.0 / elapsedMillis : imported;
+        return new BulkImportResultDTO(received, imported, failed, elapsedMillis, rowsPerSecond, errors);
+    }
+    
+    // Changes after the client's version, collapsed to the latest state per food. A version of 0 or
+    // one older than the compacted horizon (or newer than this log, e.g. after a database reset)
+    // gets the whole active inventory instead.
+    public FoodChangesDTO getChangesSince(long since) {
+        long version = changeLog.currentVersion();
+        if (since <= 0 || since < changeLog.horizon() || since > version) {
+            return new FoodChangesDTO(version, true, false, getActiveFoods(), new ArrayList<>());
+        }
+        
+        List<FoodChange> changes = changeRepository.findByIdGreaterThanOrderById(since, Limit.of(MAX_CHANGES_PER_SYNC));
+        changesScanned.record(changes.size());
+        if (changes.isEmpty()) {
+            changesReturned.record(0);
+            return new FoodChangesDTO(since, false, false, new ArrayList<>(), new ArrayList<>());
+        }
+        Map<Long, FoodChange.Type> latest = new LinkedHashMap<>();
+        for (FoodChange change : changes) {
+            latest.remove(change.getFoodId());
+            latest.put(change.getFoodId(), change.getType());
+        }
+        
+        List<Long> touched = new ArrayList<>(latest.keySet());
+        Map<Long, FoodDTO> current = foodRepository.findActiveByIdIn(touched).stream()
+                .collect(Collectors.toMap(FoodDTO::getId, Function.identity()));
+        long today = LocalDate.now().toEpochDay();
+        List<FoodDTO> upserted = new ArrayList<>();
+        List<Long> deleted = new ArrayList<>();
+        for (Long foodId : touched) {
+            FoodDTO food = current.get(foodId);
+            // Current state wins: a later change may already have deleted or donated the food
+            if (food == null) {
+                deleted.add(foodId);
+            } else {
+                upserted.add(withExpiry(food, today));
+            }
+        }
+        // Repeated changes to one food collapse into one entry
+        changesReturned.record(touched.size());
+        return new FoodChangesDTO(changes.get(changes.size() - 1).getId(), false, changes.size() == MAX_CHANGES_PER_SYNC, upserted, deleted);
+    }
+    
+    // Mutations run one at a time in their own transaction, so change log ids follow commit order.
+    // Write-behind changes are flushed first so this write sees, and lands after, all of them.
+    private FoodChangeEvent writeInTransaction(Supplier<FoodChangeEvent> write) {
+        return writeInTransaction(write, this::publish);
+    }
+    
+    // Listeners are notified after the commit but before the next write can start, so they see
+    // changes in commit order: an update's event can never arrive after the delete that followed it
+    private <T> T writeInTransaction(Supplier<T> write, Consumer<T> publish) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        return changeLog.serialize(() -> {
+            if (writeBehind != null) {
+                writeBehind.drain();
+            }
+            T result = transaction.execute(status -> write.get());
+            if (result != null) {
+                publish.accept(result);
+            }
+            return result;
+        });
+    }
+    
+    private FoodChangeEvent record(FoodChangeEvent event) {
+        changeLog.record(event);
+        return event;
+    }
+    
+    // Called after commit, under the change log lock. Listeners (indexes, caches) run synchronously, so the version only moves once they have caught up
+    private void publish(FoodChangeEvent event) {
+        eventPublisher.publishEvent(event);
+        inventoryVersion.increment();
+    }
+    
+    private void validateForImport(FoodDTO dto) {
+        if (dto == null) {
+            throw new IllegalArgumentException("Empty row");
+        }
+        if (dto.getName() == null || dto.getName().isBlank()) {
+            throw new IllegalArgumentException("name is required");
+        }
+        if (dto.getQuantity() == null || dto.getQuantity() < 0) {
+            throw new IllegalArgumentException("quantity must be zero or more");
+        }
+        if (dto.getUnit() == null || dto.getUnit().isBlank()) {
+            throw new IllegalArgumentException("unit is required");
+        }
+        if (dto.getExpiryDate() == null) {
+            throw new IllegalArgumentException("expiryDate is required");
+        }
+        if (dto.getCategory() == null || dto.getCategory().isBlank()) {
+            throw new IllegalArgumentException("category is required");
+        }
+    }
+    
+    private static void addImportError(List<BulkImportResultDTO.RowError> errors, int row, String message) {
+        if (errors.size() < MAX_REPORTED_IMPORT_ERRORS) {
+            errors.add(new BulkImportResultDTO.RowError(row, message));
+        }
     }
 }
@@ -0,0 +1,30 @@
+package com.foodtracker.service;
+
+// Thrown when a consume asks for more than the food has left
+public class InsufficientQuantityException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long foodId;
+    private final int requested;
+    private final int available;
+
+    public InsufficientQuantityException(Long foodId, int requested, int available) {
+        super("Cannot consume " + requested + " of food " + foodId + ": only " + available + " left");
+        this.foodId = foodId;
+        this.requested = requested;
+        this.available = available;
+    }
+
+    public Long getFoodId() {
+        return foodId;
+    }
+
+    public int getRequested() {
+        return requested;
+    }
+
+    public int getAvailable() {
+        return available;
+    }
+}
@@ -0,0 +1,32 @@
+package com.foodtracker.service;
+
+import org.springframework.stereotype.Component;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Monotonic version of the inventory, bumped by FoodService after every committed mutation.
+// Seeded from the clock so versions keep increasing across restarts.
+@Component
+public class InventoryVersion {
+
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+
+    public long get() {
+        return version.get();
+    }
+
+    public long increment() {
+        return version.incrementAndGet();
+    }
+
+    // Cache key for an inventory read. Any later committed mutation, or the next day, gives later
+    // reads a new key, so a value loaded from data a commit has since changed is never served again
+    public String cacheKey(Object name) {
+        return name + "@" + version.get() + "-" + LocalDate.now().toEpochDay();
+    }
+
+    // Strong ETag for inventory-derived responses; includes the day because status depends on it
+    public String getETag() {
+        return "\"" + version.get() + "-" + LocalDate.now().toEpochDay() + "\"";
+    }
+}
@@ -0,0 +1,32 @@
+package com.foodtracker.service;
+
+import com.foodtracker.dto.ExpiryAlertDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import java.util.List;
+
+// One line per alert; a midnight batch can be large, so it goes at INFO only when small
+@Component
+@ConditionalOnProperty(name = "foodtracker.alerts.log.enabled", havingValue = "true", matchIfMissing = true)
+public class LoggingAlertSink implements ExpiryAlertSink {
+
+    private static final Logger log = LoggerFactory.getLogger(LoggingAlertSink.class);
+    private static final int DETAILED_BATCH = 20;
+
+    @Override
+    public void deliver(List<ExpiryAlertDTO> alerts) {
+        boolean detailed = alerts.size() <= DETAILED_BATCH;
+        if (!detailed) {
+            log.info("{} foods changed expiry status", alerts.size());
+        }
+        for (ExpiryAlertDTO alert : alerts) {
+            if (detailed) {
+                log.info("Food {} is now {} (expires {})", alert.getFoodId(), alert.getStatus(), alert.getExpiryDate());
+            } else {
+                log.debug("Food {} is now {} (expires {})", alert.getFoodId(), alert.getStatus(), alert.getExpiryDate());
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.foodtracker.service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foodtracker.dto.RecipeDTO;
+import com.foodtracker.index.RecipeIngredientIndex;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Recipe catalog loaded once from a JSON-lines file. Reloads build a complete new index off to
+// the side and swap it in atomically, so readers never block and never see a half-loaded catalog.
+@Component
+public class RecipeCatalog {
+
+    private static final Logger log = LoggerFactory.getLogger(RecipeCatalog.class);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ResourceLoader resourceLoader;
+
+    @Value("${foodtracker.recipes.location:classpath:recipes.jsonl}")
+    private String location;
+
+    private final AtomicReference<RecipeIngredientIndex> current = new AtomicReference<>();
+
+    @PostConstruct
+    public void load() {
+        try {
+            reload();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load recipe catalog from " + location, e);
+        }
+    }
+
+    // Returns the number of recipes now in the catalog; on failure the previous catalog stays live
+    public int reload() throws IOException {
+        Resource resource = resourceLoader.getResource(location);
+        List<RecipeDTO> recipes = new ArrayList<>();
+        Map<String, String> strings = new HashMap<>();
+        try (InputStream in = resource.getInputStream();
+             MappingIterator<RecipeDTO> lines = objectMapper.readerFor(RecipeDTO.class).readValues(in)) {
+            while (lines.hasNextValue()) {
+                recipes.add(compact(lines.nextValue(), strings));
+            }
+        }
+        current.set(new RecipeIngredientIndex(recipes));
+        log.info("Loaded {} recipes from {}", recipes.size(), location);
+        return recipes.size();
+    }
+
+    public RecipeIngredientIndex getIndex() {
+        return current.get();
+    }
+
+    public List<RecipeDTO> getRecipes() {
+        return current.get().getRecipes();
+    }
+
+    // Deduplicate the repetitive strings (ingredients, difficulty, cooking time) and freeze the ingredient list
+    private static RecipeDTO compact(RecipeDTO recipe, Map<String, String> strings) {
+        List<String> ingredients = new ArrayList<>();
+        if (recipe.getIngredients() != null) {
+            for (String ingredient : recipe.getIngredients()) {
+                ingredients.add(dedupe(ingredient, strings));
+            }
+        }
+        return new RecipeDTO(
+                recipe.getName(),
+                recipe.getDescription(),
+                List.copyOf(ingredients),
+                dedupe(recipe.getCookingTime(), strings),
+                dedupe(recipe.getDifficulty(), strings),
+                recipe.getInstructions());
+    }
+
+    private static String dedupe(String value, Map<String, String> strings) {
+        return value == null ? null : strings.computeIfAbsent(value, v -> v);
+    }
+}
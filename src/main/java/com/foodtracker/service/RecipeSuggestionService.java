@@ -1,158 +1,132 @@
 package com.foodtracker.service;
 
+import com.foodtracker.dto.RankedRecipeDTO;
 import com.foodtracker.dto.RecipeDTO;
+import com.foodtracker.index.RecipeIngredientIndex;
+import com.foodtracker.repository.FoodNameExpiryView;
+import com.foodtracker.repository.FoodRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.PriorityQueue;
 
+// Every public method records a foodtracker.recipes timer; the matchers also record how many
+// recipes they examined against how many they returned
 @Service
+@Timed(value = "foodtracker.recipes", histogram = true)
 public class RecipeSuggestionService {
 
-    private List<RecipeDTO> getAllRecipes() {
-        List<RecipeDTO> recipes = new ArrayList<>();
-
-        // Dairy Recipes
-        recipes.add(new RecipeDTO(
-            "Cheese Omelette",
-            "A fluffy omelette with melted cheese",
-            Arrays.asList("Milk", "Eggs", "Cheese"),
-            "10 mins",
-            "Easy",
-            "Beat eggs with milk, pour into buttered pan, add cheese, fold and serve."
-        ));
-
-        recipes.add(new RecipeDTO(
-            "Creamy Pasta",
-            "Pasta with creamy milk sauce",
-            Arrays.asList("Milk", "Pasta", "Butter"),
-            "20 mins",
-            "Easy",
-            "Cook pasta, make béchamel sauce with milk and butter, mix with pasta."
-        ));
-
-        recipes.add(new RecipeDTO(
-            "Yogurt Parfait",
-            "Layered yogurt with granola",
-            Arrays.asList("Yogurt", "Granola", "Berries"),
-            "5 mins",
-            "Very Easy",
-            "Layer yogurt, granola, and berries in a glass. Serve immediately."
-        ));
-
-        // Produce Recipes
-        recipes.add(new RecipeDTO(
-            "Fresh Salad",
-            "Crisp vegetable salad",
-            Arrays.asList("Lettuce", "Tomato", "Cucumber"),
-            "10 mins",
-            "Very Easy",
-            "Chop vegetables, toss with olive oil and vinegar, season to taste."
-        ));
-
-        recipes.add(new RecipeDTO(
-            "Tomato Sauce",
-            "Classic pasta sauce",
-            Arrays.asList("Tomato", "Garlic", "Olive Oil"),
-            "30 mins",
-            "Easy",
-            "Sauté garlic, add chopped tomatoes, simmer 20 mins, season with salt and pepper."
-        ));
-
-        recipes.add(new RecipeDTO(
-            "Vegetable Stir Fry",
-            "Quick and colorful stir fry",
-            Arrays.asList("Lettuce", "Tomato", "Garlic"),
-            "15 mins",
-            "Easy",
-            "Heat oil, stir fry vegetables, add soy sauce and serve over rice."
-        ));
-
-        // Meat Recipes
-        recipes.add(new RecipeDTO(
-            "Grilled Chicken",
-            "Juicy grilled chicken breast",
-            Arrays.asList("Chicken", "Olive Oil", "Lemon"),
-            "25 mins",
-            "Easy",
-            "Season chicken, grill 12-15 mins per side, rest 5 mins before serving."
-        ));
-
-        recipes.add(new RecipeDTO(
-            "Chicken Soup",
-            "Warm and comforting chicken soup",
-            Arrays.asList("Chicken", "Carrots", "Celery"),
-            "45 mins",
-            "Easy",
-            "Boil chicken with vegetables, season, simmer until cooked through."
-        ));
-
-        // Pantry Recipes
-        recipes.add(new RecipeDTO(
-            "Classic Sandwich",
-            "Simple bread sandwich",
-            Arrays.asList("Bread", "Butter", "Cheese"),
-            "5 mins",
-            "Very Easy",
-            "Butter bread slices, add cheese, cut diagonally and serve."
-        ));
-
-        recipes.add(new RecipeDTO(
-            "Bread Pudding",
-            "Sweet dessert using stale bread",
-            Arrays.asList("Bread", "Milk", "Eggs"),
-            "50 mins",
-            "Medium",
-            "Cube bread, soak in milk and egg mixture, bake at 350°F for 40 mins."
-        ));
-
-        // Frozen Recipes
-        recipes.add(new RecipeDTO(
-            "Ice Cream Sundae",
-            "Classic ice cream dessert",
-            Arrays.asList("Ice Cream", "Chocolate Sauce", "Nuts"),
-            "5 mins",
-            "Very Easy",
-            "Scoop ice cream into bowl, drizzle with sauce, top with nuts."
-        ));
-
-        recipes.add(new RecipeDTO(
-            "Smoothie Bowl",
-            "Frozen fruit smoothie bowl",
-            Arrays.asList("Ice Cream", "Berries", "Granola"),
-            "10 mins",
-            "Easy",
-            "Blend ice cream with berries, pour into bowl, top with granola."
-        ));
-
-        return recipes;
+    public static final int DEFAULT_USE_IT_UP_LIMIT = 5;
+    public static final int MAX_USE_IT_UP_LIMIT = 50;
+
+    // Lowest score first, and among equal scores the later catalog entry first, so it is evicted first
+    private static final Comparator<ScoredRecipe> WORST_FIRST = Comparator
+            .comparingDouble(ScoredRecipe::score)
+            .thenComparing(Comparator.comparingInt(ScoredRecipe::recipeId).reversed());
+
+    @Autowired
+    private RecipeCatalog recipeCatalog;
+
+    @Autowired
+    private FoodRepository foodRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private DistributionSummary matchScanned;
+    private DistributionSummary matchReturned;
+    private DistributionSummary useItUpScanned;
+    private DistributionSummary useItUpReturned;
+
+    @PostConstruct
+    public void registerMeters() {
+        matchScanned = summary("foodtracker.recipes.scanned", "match");
+        matchReturned = summary("foodtracker.recipes.returned", "match");
+        useItUpScanned = summary("foodtracker.recipes.scanned", "use-it-up");
+        useItUpReturned = summary("foodtracker.recipes.returned", "use-it-up");
+    }
+
+    private DistributionSummary summary(String name, String matcher) {
+        return DistributionSummary.builder(name).tag("matcher", matcher).baseUnit("recipes").register(meterRegistry);
     }
 
     public List<RecipeDTO> getRecipeSuggestions(String foodName) {
-        String foodLower = foodName.toLowerCase();
-        return getAllRecipes().stream()
-                .filter(recipe -> recipe.getIngredients().stream()
-                        .anyMatch(ing -> ing.toLowerCase().contains(foodLower) || 
-                                       foodLower.contains(ing.toLowerCase())))
-                .collect(Collectors.toList());
+        return match(List.of(foodName));
     }
 
     public List<RecipeDTO> getRecipeSuggestionsForMultiple(List<String> foodNames) {
-        return getAllRecipes().stream()
-                .filter(recipe -> {
-                    int matchCount = 0;
-                    for (String ingredient : recipe.getIngredients()) {
-                        for (String food : foodNames) {
-                            if (ingredient.toLowerCase().contains(food.toLowerCase()) || 
-                                food.toLowerCase().contains(ingredient.toLowerCase())) {
-                                matchCount++;
-                            }
-                        }
-                    }
-                    return matchCount > 0;
-                })
-                .collect(Collectors.toList());
+        return match(foodNames);
+    }
+
+    private List<RecipeDTO> match(List<String> foodNames) {
+        RecipeIngredientIndex index = recipeCatalog.getIndex();
+        List<RecipeDTO> matches = index.match(foodNames);
+        matchScanned.record(index.recipeCount());
+        matchReturned.record(matches.size());
+        return matches;
+    }
+
+    // Top recipes for the live inventory, favouring ingredients that expire soonest
+    public List<RankedRecipeDTO> getUseItUpSuggestions(int limit) {
+        RecipeIngredientIndex index = recipeCatalog.getIndex();
+        int today = (int) LocalDate.now().toEpochDay();
+
+        // Urgency per catalog ingredient is 1 / (1 + days left) of the most urgent matching food
+        double[] urgency = new double[index.ingredientCount()];
+        BitSet available = new BitSet(index.ingredientCount());
+        for (FoodNameExpiryView food : foodRepository.findUsableNamesWithEarliestExpiry(today)) {
+            double weight = 1.0 / (1 + food.getExpiryEpochDay() - today);
+            for (int ingredientId : index.matchIngredients(food.getName())) {
+                available.set(ingredientId);
+                urgency[ingredientId] = Math.max(urgency[ingredientId], weight);
+            }
+        }
+
+        int k = Math.max(1, Math.min(limit, MAX_USE_IT_UP_LIMIT));
+        PriorityQueue<ScoredRecipe> top = new PriorityQueue<>(k + 1, WORST_FIRST);
+        for (int recipeId = 0; recipeId < index.recipeCount(); recipeId++) {
+            if (!index.getIngredientBits(recipeId).intersects(available)) {
+                continue;
+            }
+            double score = 0;
+            for (int ingredientId : index.getIngredients(recipeId)) {
+                score += urgency[ingredientId];
+            }
+            ScoredRecipe candidate = new ScoredRecipe(recipeId, score);
+            if (top.size() < k) {
+                top.add(candidate);
+            } else if (WORST_FIRST.compare(candidate, top.peek()) > 0) {
+                top.poll();
+                top.add(candidate);
+            }
+        }
+
+        List<RankedRecipeDTO> ranked = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            ScoredRecipe scored = top.poll();
+            List<String> matched = new ArrayList<>();
+            for (int ingredientId : index.getIngredients(scored.recipeId())) {
+                if (available.get(ingredientId)) {
+                    matched.add(index.getIngredientName(ingredientId));
+                }
+            }
+            ranked.add(new RankedRecipeDTO(index.getRecipes().get(scored.recipeId()), scored.score(), matched));
+        }
+        // The heap drains worst first
+        Collections.reverse(ranked);
+        useItUpScanned.record(index.recipeCount());
+        useItUpReturned.record(ranked.size());
+        return ranked;
     }
 
     public List<RecipeDTO> getRecipeSuggestionsForCategory(String category) {
@@ -179,4 +153,7 @@ public class RecipeSuggestionService {
                 return new ArrayList<>();
         }
     }
+
+    private record ScoredRecipe(int recipeId, double score) {
+    }
 }
@@ -0,0 +1,76 @@
+package com.foodtracker.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foodtracker.dto.ExpiryAlertDTO;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+
+// POSTs each alert batch as a JSON array to foodtracker.alerts.webhook.url. Requests are sent
+// asynchronously, at most max-in-flight at a time; a batch arriving while that many are still
+// outstanding is dropped and logged rather than queued, so a slow receiver cannot pile up memory.
+@Component
+@ConditionalOnProperty(name = "foodtracker.alerts.webhook.url")
+public class WebhookAlertSink implements ExpiryAlertSink {
+
+    private static final Logger log = LoggerFactory.getLogger(WebhookAlertSink.class);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${foodtracker.alerts.webhook.url}")
+    private URI url;
+
+    @Value("${foodtracker.alerts.webhook.timeout:PT5S}")
+    private Duration timeout;
+
+    @Value("${foodtracker.alerts.webhook.max-in-flight:4}")
+    private int maxInFlight;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private Semaphore inFlight;
+
+    @PostConstruct
+    public void init() {
+        inFlight = new Semaphore(maxInFlight);
+    }
+
+    @Override
+    public void deliver(List<ExpiryAlertDTO> alerts) {
+        if (!inFlight.tryAcquire()) {
+            log.warn("Dropping {} expiry alerts; {} webhook requests still pending", alerts.size(), maxInFlight);
+            return;
+        }
+        HttpRequest request;
+        try {
+            request = HttpRequest.newBuilder(url)
+                    .timeout(timeout)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(alerts)))
+                    .build();
+        } catch (JsonProcessingException e) {
+            inFlight.release();
+            throw new IllegalStateException("Cannot serialize expiry alerts", e);
+        }
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+            inFlight.release();
+            if (error != null) {
+                log.warn("Expiry alert webhook {} failed for {} alerts: {}", url, alerts.size(), error.toString());
+            } else if (response.statusCode() >= 300) {
+                log.warn("Expiry alert webhook {} answered {} for {} alerts", url, response.statusCode(), alerts.size());
+            }
+        });
+    }
+}
@@ -0,0 +1,629 @@
+package com.foodtracker.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.foodtracker.model.Food;
+import com.foodtracker.repository.FoodRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+// Opt-in write-behind for add, update and donate. A mutation is applied to the latest known state
+// of the food, appended to an on-disk journal and acknowledged once an fsync covers it; a single
+// syncer thread fsyncs whatever has queued up since its last sync, so concurrent writers share one
+// fsync (group commit). Events are published in journal order after the sync, so in-memory reads
+// see the change before the call returns. A scheduled flush then writes the latest state of each
+// touched food and every change log entry to H2 in one transaction, and drops the journal segments
+// it covered. Synchronous writes drain the queue first, and anything left in the journal after a
+// crash is replayed on startup.
+@Component
+@ConditionalOnProperty(name = "foodtracker.write-behind.enabled", havingValue = "true")
+public class WriteBehindQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindQueue.class);
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String DEAD_LETTER = "dead-letter.log";
+    private static final String MERGE_FOOD = "MERGE INTO foods (id, name, name_key, quantity, unit, expiry_date, " +
+            "expiry_epoch_day, added_date, category, category_key, donated, donated_date, version) KEY (id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private FoodRepository foodRepository;
+
+    @Autowired
+    private FoodChangeLog changeLog;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private InventoryVersion inventoryVersion;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${foodtracker.write-behind.directory:${user.home}/foodtracker/journal}")
+    private Path directory;
+
+    @Value("${foodtracker.write-behind.max-flush-attempts:5}")
+    private int maxFlushAttempts;
+
+    @Value("${spring.datasource.url:}")
+    private String datasourceUrl;
+
+    // One journal line; full food state, so replay needs nothing else
+    record JournalEntry(FoodChangeEvent.Type type, Long id, String name, Integer quantity, String unit,
+                        LocalDate expiryDate, LocalDate addedDate, String category, Boolean donated,
+                        LocalDate donatedDate, Long version) {
+
+        static JournalEntry of(FoodChangeEvent event) {
+            Food food = event.getFood();
+            return new JournalEntry(event.getType(), food.getId(), food.getName(), food.getQuantity(), food.getUnit(),
+                    food.getExpiryDate(), food.getAddedDate(), food.getCategory(), food.getDonated(),
+                    food.getDonatedDate(), food.getVersion());
+        }
+
+        Food toFood() {
+            Food food = new Food(id, name, quantity, unit, expiryDate, addedDate, category, donated, donatedDate);
+            food.setVersion(version);
+            return food;
+        }
+    }
+
+    private record Journaled(long sequence, FoodChangeEvent event, byte[] line) {
+    }
+
+    // Latest acknowledged (fsynced) state of every food whose changes are not in the database yet
+    private final Map<Long, Food> pending = new ConcurrentHashMap<>();
+    // Latest journaled state, acknowledged or not, that the next change builds on
+    private final Map<Long, Food> journaled = new ConcurrentHashMap<>();
+
+    // Journaled but not yet synced, guarded by queueLock
+    private final ReentrantLock queueLock = new ReentrantLock();
+    private final Condition queued = queueLock.newCondition();
+    private final Condition synced = queueLock.newCondition();
+    private List<Journaled> unsynced = new ArrayList<>();
+    private long lastSequence;
+    private long syncedSequence;
+    private Throwable syncFailure;
+
+    // Synced but not yet flushed, and the segment being appended to, guarded by syncLock
+    private final Object syncLock = new Object();
+    private List<Journaled> unflushed = new ArrayList<>();
+    private FileChannel segment;
+    private long segmentNumber;
+
+    private final List<Path> recovered = new ArrayList<>();
+    // Consecutive failed flushes of the current batch; guarded by the change log lock
+    private int failedFlushes;
+    // Newest segment holding only flushed entries whose file may still be on disk, or -1; guarded
+    // by the change log lock
+    private long droppableSegment = -1;
+    private volatile boolean running;
+    private Thread syncer;
+
+    // Ids are taken a block at a time from foods_seq, the same way Hibernate's pooled optimizer
+    // does, so they never collide with ids it hands out; guarded by the change log lock
+    private long nextId;
+    private long lastIdInBlock = -1;
+
+    @PostConstruct
+    public void start() throws IOException {
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(WriteBehindQueue::isSegment).sorted().forEach(recovered::add);
+        }
+        segmentNumber = recovered.isEmpty() ? 0 : segmentNumber(recovered.get(recovered.size() - 1));
+        openNextSegment();
+        running = true;
+        syncer = new Thread(this::syncLoop, "write-behind-journal");
+        syncer.start();
+        log.info("Write-behind journal in {}", directory);
+        if (datasourceUrl.startsWith("jdbc:h2:") && !datasourceUrl.contains("DB_CLOSE_ON_EXIT=FALSE")) {
+            // H2's own shutdown hook can close the database before the final flush; nothing is
+            // lost, since the journal is replayed on the next start
+            log.warn("Add ;DB_CLOSE_ON_EXIT=FALSE to spring.datasource.url so the write-behind queue " +
+                    "can flush on shutdown");
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws IOException, InterruptedException {
+        queueLock.lock();
+        try {
+            running = false;
+            queued.signalAll();
+        } finally {
+            queueLock.unlock();
+        }
+        syncer.join();
+        flush();
+        synchronized (syncLock) {
+            segment.close();
+        }
+    }
+
+    // Replay mutations that were acknowledged but not flushed before the last shutdown. Entries
+    // the database already holds (same or newer version) were flushed before the journal segment
+    // could be dropped and are skipped. Runs before the in-memory indexes load.
+    public void recover() throws IOException {
+        if (recovered.isEmpty()) {
+            return;
+        }
+        List<JournalEntry> entries = new ArrayList<>();
+        for (Path path : recovered) {
+            try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    try {
+                        entries.add(objectMapper.readValue(line, JournalEntry.class));
+                    } catch (JsonProcessingException e) {
+                        // A torn last line from a crash mid-append was never acknowledged
+                        log.warn("Skipping unreadable journal line in {}", path.getFileName());
+                    }
+                }
+            }
+        }
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Integer replayed = changeLog.serialize(() -> transaction.execute(status -> {
+            Map<Long, Long> versions = new HashMap<>();
+            Map<Long, Food> latest = new LinkedHashMap<>();
+            for (JournalEntry entry : entries) {
+                long stored = versions.computeIfAbsent(entry.id(), id -> jdbcTemplate.query(
+                        "SELECT version FROM foods WHERE id = ?", rs -> rs.next() ? rs.getLong(1) : -1L, id));
+                if (entry.version() <= stored) {
+                    continue;
+                }
+                Food food = entry.toFood();
+                changeLog.record(new FoodChangeEvent(entry.type(), food));
+                versions.put(entry.id(), entry.version());
+                latest.put(entry.id(), food);
+            }
+            merge(latest.values());
+            return latest.size();
+        }));
+        for (Path path : recovered) {
+            Files.deleteIfExists(path);
+        }
+        if (!entries.isEmpty()) {
+            log.info("Replayed {} journal entries, restoring {} foods", entries.size(), replayed);
+        }
+        recovered.clear();
+    }
+
+    // Latest acknowledged state of the food if it has changes not yet in the database
+    public Food pending(Long id) {
+        Food food = pending.get(id);
+        return food != null ? food.copy() : null;
+    }
+
+    public FoodChangeEvent add(Food food) {
+        Journaled entry = changeLog.serialize(() -> {
+            food.setId(nextId());
+            food.setVersion(0L);
+            return enqueue(new FoodChangeEvent(FoodChangeEvent.Type.ADDED, food));
+        });
+        awaitSynced(entry.sequence());
+        return entry.event();
+    }
+
+    // Apply the change to a copy of the food's latest state; null if there is no such food. The
+    // change may throw to reject the mutation, e.g. on a stale version.
+    public FoodChangeEvent change(Long id, FoodChangeEvent.Type type, Consumer<Food> change) {
+        Journaled entry = changeLog.serialize(() -> {
+            Food current = journaled.get(id);
+            if (current == null) {
+                current = foodRepository.findById(id).orElse(null);
+                if (current == null) {
+                    return null;
+                }
+            }
+            Food previous = current.copy();
+            Food next = current.copy();
+            change.accept(next);
+            next.setVersion(previous.getVersion() + 1);
+            return enqueue(new FoodChangeEvent(type, next, previous));
+        });
+        if (entry == null) {
+            return null;
+        }
+        awaitSynced(entry.sequence());
+        return entry.event();
+    }
+
+    // Bring the database up to date with everything acknowledged so far. Callers hold the change
+    // log lock, so nothing new is journaled meanwhile. Throws if the changes could not be written,
+    // so synchronous writes never run against a database missing acknowledged changes.
+    public void drain() {
+        long last;
+        queueLock.lock();
+        try {
+            last = lastSequence;
+        } finally {
+            queueLock.unlock();
+        }
+        awaitSynced(last);
+        if (!changeLog.serialize(this::flushBatch)) {
+            throw new IllegalStateException("Write-behind changes could not be written to the database " +
+                    "or dropped from the journal");
+        }
+    }
+
+    // Runs under the change log lock so change ids commit in the order they are assigned
+    @Scheduled(fixedDelayString = "${foodtracker.write-behind.flush-interval-ms:200}")
+    public void flush() {
+        changeLog.serialize(this::flushBatch);
+    }
+
+    // Write everything synced so far in one transaction; false if it stays unwritten or its
+    // journal segments cannot be dropped. A batch that keeps failing is retried up to
+    // max-flush-attempts times, then written one food at a time so foods the database rejects
+    // outright go to the dead-letter file instead of holding back the rest.
+    private boolean flushBatch() {
+        List<Journaled> batch;
+        long flushedSegment;
+        synchronized (syncLock) {
+            if (unflushed.isEmpty()) {
+                batch = null;
+                flushedSegment = -1;
+            } else {
+                // Later entries go to a new segment, so every older one holds only flushed entries
+                flushedSegment = segmentNumber;
+                openNextSegment();
+                batch = unflushed;
+                unflushed = new ArrayList<>();
+            }
+        }
+        if (batch == null) {
+            return dropFlushedSegments();
+        }
+
+        Map<Long, List<Journaled>> byFood = new LinkedHashMap<>();
+        for (Journaled entry : batch) {
+            byFood.computeIfAbsent(entry.event().getFood().getId(), id -> new ArrayList<>()).add(entry);
+        }
+        try {
+            write(batch, byFood.values());
+            failedFlushes = 0;
+        } catch (RuntimeException e) {
+            failedFlushes++;
+            if (failedFlushes < maxFlushAttempts) {
+                log.error("Write-behind flush of {} changes failed (attempt {}); will retry", batch.size(),
+                        failedFlushes, e);
+                requeue(batch);
+                return false;
+            }
+            if (!writeEachFood(byFood)) {
+                requeue(batch);
+                return false;
+            }
+            failedFlushes = 0;
+        }
+        for (List<Journaled> entries : byFood.values()) {
+            Food food = entries.get(entries.size() - 1).event().getFood();
+            // A food changed again since keeps its newer state
+            pending.remove(food.getId(), food);
+            journaled.remove(food.getId(), food);
+        }
+        droppableSegment = flushedSegment;
+        log.debug("Flushed {} changes to {} foods", batch.size(), byFood.size());
+        return dropFlushedSegments();
+    }
+
+    // Record every change log entry and merge the latest state of each food, in one transaction
+    private void write(List<Journaled> entries, Collection<List<Journaled>> byFood) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (Journaled entry : entries) {
+                changeLog.record(entry.event());
+            }
+            merge(byFood.stream().map(changes -> changes.get(changes.size() - 1).event().getFood()).toList());
+        });
+    }
+
+    // False if a failure looks like the database itself being unavailable, in which case the
+    // whole batch is kept for a later retry
+    private boolean writeEachFood(Map<Long, List<Journaled>> byFood) {
+        for (List<Journaled> changes : byFood.values()) {
+            try {
+                write(changes, List.of(changes));
+            } catch (RuntimeException e) {
+                if (!rejected(e)) {
+                    log.error("Write-behind flush failed {} times; will retry", failedFlushes, e);
+                    return false;
+                }
+                deadLetter(changes, e);
+                revert(changes.get(changes.size() - 1).event().getFood());
+            }
+        }
+        return true;
+    }
+
+    // Errors the database raises about the data itself, which no retry will fix
+    private static boolean rejected(RuntimeException e) {
+        if (e instanceof NonTransientDataAccessException) {
+            return !(e instanceof DataAccessResourceFailureException);
+        }
+        return !(e instanceof DataAccessException) && !(e instanceof TransactionException);
+    }
+
+    // Keep changes the database will not take in a file beside the journal, out of the replay
+    private void deadLetter(List<Journaled> changes, RuntimeException cause) {
+        log.error("Database rejected {} write-behind changes to food {}; moving them to {}", changes.size(),
+                changes.get(0).event().getFood().getId(), directory.resolve(DEAD_LETTER), cause);
+        try (FileChannel file = FileChannel.open(directory.resolve(DEAD_LETTER),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            for (Journaled entry : changes) {
+                ByteBuffer buffer = ByteBuffer.wrap(entry.line());
+                while (buffer.hasRemaining()) {
+                    file.write(buffer);
+                }
+            }
+            file.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write the write-behind dead-letter file", e);
+        }
+    }
+
+    // The in-memory views already show the rejected state; put them back to what the database holds
+    private void revert(Food rejected) {
+        eventPublisher.publishEvent(new FoodChangeEvent(FoodChangeEvent.Type.DELETED, rejected));
+        inventoryVersion.increment();
+        foodRepository.findById(rejected.getId()).ifPresent(stored -> {
+            eventPublisher.publishEvent(new FoodChangeEvent(FoodChangeEvent.Type.ADDED, stored));
+            inventoryVersion.increment();
+        });
+    }
+
+    private void requeue(List<Journaled> batch) {
+        synchronized (syncLock) {
+            batch.addAll(unflushed);
+            unflushed = batch;
+        }
+    }
+
+    private Journaled enqueue(FoodChangeEvent event) {
+        byte[] line;
+        try {
+            line = (objectMapper.writeValueAsString(JournalEntry.of(event)) + "\n").getBytes(StandardCharsets.UTF_8);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot journal " + event, e);
+        }
+        queueLock.lock();
+        try {
+            if (syncFailure != null) {
+                throw new IllegalStateException("Write-behind journal has failed", syncFailure);
+            }
+            journaled.put(event.getFood().getId(), event.getFood());
+            Journaled entry = new Journaled(++lastSequence, event, line);
+            unsynced.add(entry);
+            queued.signal();
+            return entry;
+        } finally {
+            queueLock.unlock();
+        }
+    }
+
+    private void awaitSynced(long sequence) {
+        queueLock.lock();
+        try {
+            while (syncedSequence < sequence) {
+                if (syncFailure != null) {
+                    throw new IllegalStateException("Write-behind journal has failed", syncFailure);
+                }
+                synced.await();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for the write-behind journal", e);
+        } finally {
+            queueLock.unlock();
+        }
+    }
+
+    // Sync everything queued since the last round with one fsync, then publish it in order. Only
+    // this thread publishes, so listeners see changes in journal order; a change counts as synced
+    // once its event is out, so drain() never lets a synchronous write's event overtake it.
+    private void syncLoop() {
+        while (true) {
+            List<Journaled> batch;
+            queueLock.lock();
+            try {
+                while (unsynced.isEmpty() && running) {
+                    queued.awaitUninterruptibly();
+                }
+                if (unsynced.isEmpty()) {
+                    return;
+                }
+                batch = unsynced;
+                unsynced = new ArrayList<>();
+            } finally {
+                queueLock.unlock();
+            }
+
+            try {
+                synchronized (syncLock) {
+                    for (Journaled entry : batch) {
+                        ByteBuffer buffer = ByteBuffer.wrap(entry.line());
+                        while (buffer.hasRemaining()) {
+                            segment.write(buffer);
+                        }
+                    }
+                    segment.force(false);
+                    // Before the batch can be flushed, so a flush never misses a pending entry
+                    for (Journaled entry : batch) {
+                        pending.put(entry.event().getFood().getId(), entry.event().getFood());
+                    }
+                    unflushed.addAll(batch);
+                }
+            } catch (IOException | RuntimeException | Error e) {
+                log.error("Write-behind journal write failed; rejecting further writes", e);
+                fail(batch, e);
+                return;
+            }
+
+            for (Journaled entry : batch) {
+                try {
+                    eventPublisher.publishEvent(entry.event());
+                } catch (RuntimeException e) {
+                    // The change is durable either way; one failing listener must not stall writers
+                    log.error("Listener failed on {}", entry.event(), e);
+                }
+                inventoryVersion.increment();
+            }
+
+            queueLock.lock();
+            try {
+                syncedSequence = batch.get(batch.size() - 1).sequence();
+                synced.signalAll();
+            } finally {
+                queueLock.unlock();
+            }
+        }
+    }
+
+    // Reject the unsynced changes and everything queued after them, and take their state back out
+    // of the journaled overlay. Writers blocked on them get the failure, and later writes are
+    // refused.
+    private void fail(List<Journaled> batch, Throwable cause) {
+        List<Journaled> rejected = new ArrayList<>(batch);
+        queueLock.lock();
+        try {
+            syncFailure = cause;
+            rejected.addAll(unsynced);
+            unsynced = new ArrayList<>();
+            synced.signalAll();
+        } finally {
+            queueLock.unlock();
+        }
+        for (Journaled entry : rejected) {
+            Food food = entry.event().getFood();
+            Food acknowledged = pending.get(food.getId());
+            if (acknowledged != null) {
+                journaled.put(food.getId(), acknowledged);
+            } else {
+                journaled.remove(food.getId(), food);
+            }
+        }
+    }
+
+    private void merge(Collection<Food> foods) {
+        jdbcTemplate.batchUpdate(MERGE_FOOD, foods, 500, (statement, food) -> {
+            statement.setLong(1, food.getId());
+            statement.setString(2, food.getName());
+            statement.setString(3, food.getNameKey());
+            statement.setInt(4, food.getQuantity());
+            statement.setString(5, food.getUnit());
+            statement.setDate(6, Date.valueOf(food.getExpiryDate()));
+            statement.setInt(7, food.getExpiryEpochDay());
+            statement.setDate(8, Date.valueOf(food.getAddedDate()));
+            statement.setString(9, food.getCategory());
+            statement.setString(10, food.getCategoryKey());
+            statement.setBoolean(11, Boolean.TRUE.equals(food.getDonated()));
+            statement.setDate(12, food.getDonatedDate() != null ? Date.valueOf(food.getDonatedDate()) : null);
+            statement.setLong(13, food.getVersion());
+        });
+    }
+
+    private long nextId() {
+        if (nextId > lastIdInBlock) {
+            Long high = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR foods_seq", Long.class);
+            lastIdInBlock = high;
+            nextId = high - Food.ID_ALLOCATION_SIZE + 1;
+        }
+        return nextId++;
+    }
+
+    // The next segment is open before the current one closes, so a failure leaves appends going on
+    private void openNextSegment() {
+        try {
+            FileChannel next = FileChannel.open(segmentPath(segmentNumber + 1),
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            if (segment != null) {
+                segment.close();
+            }
+            segment = next;
+            segmentNumber++;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // A flushed segment left on disk is replayed on the next start, where a row deleted or archived
+    // since reads as never written and would be restored. So until the files are gone drain()
+    // fails, and deletes, consumes and archiving, which drain first, wait; later flushes retry.
+    private boolean dropFlushedSegments() {
+        if (droppableSegment < 0) {
+            return true;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path path : files.filter(WriteBehindQueue::isSegment).toList()) {
+                if (segmentNumber(path) <= droppableSegment && !recovered.contains(path)) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        } catch (IOException e) {
+            log.error("Could not drop flushed journal segments; synchronous writes wait until they are gone", e);
+            return false;
+        }
+        droppableSegment = -1;
+        return true;
+    }
+
+    private Path segmentPath(long number) {
+        return directory.resolve(String.format("%s%019d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+    }
+
+    private static boolean isSegment(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    private static long segmentNumber(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+}